@@ -0,0 +1,61 @@
+#!/bin/bash
+#
+# Compares handler throughput and p99 latency with platform threads and with virtual threads.
+#
+# Requirements:
+#   - JDK 21 (the virtual-thread mode needs a Java 21 runtime)
+#   - MySQL and Kafka running: docker-compose up -d mysql kafka zookeeper
+#   - hey (https://github.com/rakyll/hey) on the PATH
+#
+# Usage: CONCURRENCY=1000 DURATION=30s ./benchmark-threads.sh
+
+set -e
+
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30s}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ORDER='{"symbol":"VCB","quantity":15,"price":50000.00,"side":"BUY"}'
+
+echo "Building handler with Java 21 toolchain..."
+./gradlew -q :handler:bootJar -PjavaVersion=21
+JAR=$(ls handler/build/libs/handler-*.jar | grep -v plain)
+
+run_mode() {
+    local mode=$1
+    local profiles=$2
+
+    echo "Starting handler in $mode mode..."
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" --spring.profiles.active="$profiles" > "benchmark-$mode.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+        sleep 1
+    done
+
+    echo "Warming up..."
+    hey -z 10s -c 50 -m POST -a admin:admin -T application/json -d "$ORDER" "$BASE_URL/orders" > /dev/null
+
+    echo "Running $DURATION at concurrency $CONCURRENCY..."
+    hey -z "$DURATION" -c "$CONCURRENCY" -m POST -a admin:admin -T application/json -d "$ORDER" "$BASE_URL/orders" \
+        > "benchmark-$mode.txt"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+report() {
+    local mode=$1
+    local throughput p99 pinned
+    throughput=$(grep "Requests/sec" "benchmark-$mode.txt" | awk '{print $2}')
+    p99=$(grep "99% in" "benchmark-$mode.txt" | awk '{print $3}')
+    pinned=$(grep -c "<== monitors" "benchmark-$mode.log" || true)
+    printf "%-10s %15s %15s %15s\n" "$mode" "$throughput" "$p99" "$pinned"
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
+
+echo
+printf "%-10s %15s %15s %15s\n" "mode" "requests/sec" "p99 (secs)" "pinned events"
+report platform
+report virtual
@@ -0,0 +1,97 @@
+package com.example.benchmarks;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+import com.example.common.serialization.OrderEventDeserializer;
+import com.example.common.serialization.OrderEventSerializer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.example.handler.model.entity.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of the order event path: serializing the order into {@code eventData} as
+ * {@code EventPublisher} does, then the Kafka value on the producer and the consumer side.
+ * The {@code legacyJson} benchmarks reproduce the Spring JSON serde the topic used before the
+ * binary codec, the JSON-in-JSON double encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderEventSerializationBenchmark {
+
+    private static final String TOPIC = Constants.ORDER_EVENTS_TOPIC;
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private JsonSerializer<OrderEventDto> jsonSerializer;
+    private JsonDeserializer<OrderEventDto> jsonDeserializer;
+    private OrderEventSerializer binarySerializer;
+    private OrderEventDeserializer orderEventDeserializer;
+    private byte[] legacyJsonRecord;
+    private byte[] binaryRecord;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Same mapper as the handler's KafkaConfig
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        order = Samples.order();
+
+        jsonSerializer = new JsonSerializer<>(objectMapper);
+        jsonSerializer.setAddTypeInfo(false);
+        jsonDeserializer = new JsonDeserializer<>(OrderEventDto.class, objectMapper, false);
+        binarySerializer = new OrderEventSerializer();
+        binarySerializer.configure(Map.of(), false);
+        orderEventDeserializer = new OrderEventDeserializer();
+
+        OrderEventDto event = toEvent(order);
+        legacyJsonRecord = jsonSerializer.serialize(TOPIC, event);
+        binaryRecord = binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public String eventData() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public byte[] publishLegacyJson() throws JsonProcessingException {
+        return jsonSerializer.serialize(TOPIC, toEvent(order));
+    }
+
+    @Benchmark
+    public byte[] publishBinary() throws JsonProcessingException {
+        return binarySerializer.serialize(TOPIC, toEvent(order));
+    }
+
+    @Benchmark
+    public OrderEventDto consumeLegacyJson() {
+        return jsonDeserializer.deserialize(TOPIC, legacyJsonRecord);
+    }
+
+    @Benchmark
+    public OrderEventDto consumeBinary() {
+        return orderEventDeserializer.deserialize(TOPIC, binaryRecord);
+    }
+
+    @Benchmark
+    public OrderEventDto consumeJsonFallback() {
+        return orderEventDeserializer.deserialize(TOPIC, legacyJsonRecord);
+    }
+
+    private OrderEventDto toEvent(Order order) throws JsonProcessingException {
+        return new OrderEventDto(order.getId(), order.getSymbol(), EventType.ORDER_CREATED,
+                objectMapper.writeValueAsString(order), Instant.now());
+    }
+}
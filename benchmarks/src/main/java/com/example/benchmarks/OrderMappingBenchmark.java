@@ -0,0 +1,74 @@
+package com.example.benchmarks;
+
+import com.example.handler.model.dto.OrderResponse;
+import com.example.handler.model.entity.Order;
+import com.example.handler.service.matching.FixedPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping done for every order returned by the API, and the {@link BigDecimal}
+ * arithmetic applied per fill, against the scaled-long form the order books use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    private Order order;
+    private BigDecimal fillQuantity;
+    private long fixedQuantity;
+    private long fixedFilled;
+    private long fixedFill;
+
+    @Setup
+    public void setUp() {
+        order = Samples.order();
+        fillQuantity = new BigDecimal("12.50000000");
+        fixedQuantity = FixedPoint.toFixed(order.getQuantity());
+        fixedFilled = FixedPoint.toFixed(order.getFilledQuantity());
+        fixedFill = FixedPoint.toFixed(fillQuantity);
+    }
+
+    @Benchmark
+    public OrderResponse mapToResponse() {
+        return OrderResponse.from(order);
+    }
+
+    /**
+     * What FillWriter does per side of a fill: add to the filled quantity and compare with the order quantity
+     */
+    @Benchmark
+    public boolean decimalFill() {
+        BigDecimal filled = order.getFilledQuantity().add(fillQuantity);
+        return filled.compareTo(order.getQuantity()) >= 0;
+    }
+
+    @Benchmark
+    public boolean fixedPointFill() {
+        return fixedFilled + fixedFill >= fixedQuantity;
+    }
+
+    @Benchmark
+    public long toFixed() {
+        return FixedPoint.toFixed(order.getPrice());
+    }
+
+    @Benchmark
+    public BigDecimal toDecimal() {
+        return FixedPoint.toDecimal(fixedQuantity);
+    }
+
+    /**
+     * Notional value, the kind of multiplication the rollups and reports do per execution
+     */
+    @Benchmark
+    public BigDecimal notional() {
+        return order.getPrice().multiply(order.getQuantity());
+    }
+}
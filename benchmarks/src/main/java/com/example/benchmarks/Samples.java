@@ -0,0 +1,33 @@
+package com.example.benchmarks;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.handler.model.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Representative payloads shared by the benchmarks
+ */
+final class Samples {
+
+    private Samples() {
+        // Utility class
+    }
+
+    static Order order() {
+        Order order = new Order();
+        order.setId(1_048_576L);
+        order.setSymbol("VCB");
+        order.setQuantity(new BigDecimal("150.00000000"));
+        order.setPrice(new BigDecimal("90350.00000000"));
+        order.setFilledQuantity(new BigDecimal("40.00000000"));
+        order.setStatus(OrderStatus.PENDING);
+        order.setSide(OrderSide.BUY);
+        order.setVersion(3L);
+        order.setCreatedAt(Instant.parse("2024-05-01T09:15:00.123456Z"));
+        order.setUpdatedAt(Instant.parse("2024-05-01T09:15:02.654321Z"));
+        return order;
+    }
+}
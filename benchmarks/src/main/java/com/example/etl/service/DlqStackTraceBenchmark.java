@@ -0,0 +1,42 @@
+package com.example.etl.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering the stack trace that {@link DlqService} attaches to every DLQ record.
+ * Kept in DlqService's package to reach the package-private helper. Listener failures arrive
+ * through the Kafka container and Spring proxies, so realistic traces are 100+ frames deep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DlqStackTraceBenchmark {
+
+    @Param({"20", "150"})
+    public int depth;
+
+    private Exception error;
+
+    @Setup
+    public void setUp() {
+        error = failAt(depth);
+    }
+
+    @Benchmark
+    public String getStackTrace() {
+        return DlqService.getStackTrace(error);
+    }
+
+    private static Exception failAt(int depth) {
+        if (depth <= 1) {
+            return new IllegalStateException("Failed to process order event",
+                    new IllegalArgumentException("Unknown event type code: 9"));
+        }
+        return failAt(depth - 1);
+    }
+}
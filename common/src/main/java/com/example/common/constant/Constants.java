@@ -12,4 +12,6 @@ public final class Constants {
     // Kafka Topics
     public static final String ORDER_EVENTS_TOPIC = "order-events";
     public static final String ORDER_EVENTS_DLQ_TOPIC = "order-events-dlq";
+    // Retry tiers are named by their delay, e.g. order-events-retry-1000
+    public static final String ORDER_EVENTS_RETRY_TOPIC_PREFIX = "order-events-retry-";
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.common.exception;
+
+public class ConcurrentOrderUpdateException extends RuntimeException {
+    public ConcurrentOrderUpdateException(Long orderId, String operation, int attempts) {
+        super(String.format("Could not %s order %d: it kept changing concurrently (%d attempts)", operation, orderId, attempts));
+    }
+}
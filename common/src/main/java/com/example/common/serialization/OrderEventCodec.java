@@ -0,0 +1,220 @@
+package com.example.common.serialization;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Compact binary encoding of {@link OrderEventDto}.
+ * <p>
+ * Layout of version 1, all integers big-endian:
+ * <pre>
+ * magic      1 byte   0xE7, never the first byte of a JSON document
+ * version    1 byte
+ * presence   1 byte   bit set for every non-null field, in the order below
+ * orderId    8 bytes
+ * eventType  1 byte   stable code, see {@link #eventTypeCode(EventType)}
+ * timestamp  8 bytes epoch seconds + 4 bytes nanos
+ * symbol     varint length + UTF-8
+ * eventData  varint length + UTF-8
+ * </pre>
+ * Encoding allocates the output array and one array per string; decoding reads straight from the input.
+ * New fields must be appended and guarded by the version, so older payloads stay readable.
+ */
+public final class OrderEventCodec {
+
+    public static final byte MAGIC = (byte) 0xE7;
+    public static final byte VERSION = 1;
+
+    private static final int ORDER_ID = 1;
+    private static final int EVENT_TYPE = 1 << 1;
+    private static final int TIMESTAMP = 1 << 2;
+    private static final int SYMBOL = 1 << 3;
+    private static final int EVENT_DATA = 1 << 4;
+
+    private OrderEventCodec() {
+        // Utility class
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(OrderEventDto event) {
+        byte[] symbol = event.getSymbol() == null ? null : event.getSymbol().getBytes(StandardCharsets.UTF_8);
+        byte[] eventData = event.getEventData() == null ? null : event.getEventData().getBytes(StandardCharsets.UTF_8);
+
+        int presence = 0;
+        int size = 3;
+        if (event.getOrderId() != null) {
+            presence |= ORDER_ID;
+            size += 8;
+        }
+        if (event.getEventType() != null) {
+            presence |= EVENT_TYPE;
+            size += 1;
+        }
+        if (event.getTimestamp() != null) {
+            presence |= TIMESTAMP;
+            size += 12;
+        }
+        if (symbol != null) {
+            presence |= SYMBOL;
+            size += varIntSize(symbol.length) + symbol.length;
+        }
+        if (eventData != null) {
+            presence |= EVENT_DATA;
+            size += varIntSize(eventData.length) + eventData.length;
+        }
+
+        byte[] out = new byte[size];
+        out[0] = MAGIC;
+        out[1] = VERSION;
+        out[2] = (byte) presence;
+        int pos = 3;
+        if (event.getOrderId() != null) {
+            pos = writeLong(out, pos, event.getOrderId());
+        }
+        if (event.getEventType() != null) {
+            out[pos++] = eventTypeCode(event.getEventType());
+        }
+        if (event.getTimestamp() != null) {
+            pos = writeLong(out, pos, event.getTimestamp().getEpochSecond());
+            pos = writeInt(out, pos, event.getTimestamp().getNano());
+        }
+        if (symbol != null) {
+            pos = writeBytes(out, pos, symbol);
+        }
+        if (eventData != null) {
+            writeBytes(out, pos, eventData);
+        }
+        return out;
+    }
+
+    public static OrderEventDto decode(byte[] data) {
+        if (!isBinary(data) || data.length < 3) {
+            throw new IllegalArgumentException("Not a binary order event");
+        }
+        if (data[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported order event version: " + data[1]);
+        }
+
+        try {
+            int presence = data[2];
+            int pos = 3;
+            OrderEventDto event = new OrderEventDto();
+            if ((presence & ORDER_ID) != 0) {
+                event.setOrderId(readLong(data, pos));
+                pos += 8;
+            }
+            if ((presence & EVENT_TYPE) != 0) {
+                event.setEventType(eventType(data[pos++]));
+            }
+            if ((presence & TIMESTAMP) != 0) {
+                event.setTimestamp(Instant.ofEpochSecond(readLong(data, pos), readInt(data, pos + 8)));
+                pos += 12;
+            }
+            if ((presence & SYMBOL) != 0) {
+                int length = readVarInt(data, pos);
+                pos += varIntSize(length);
+                event.setSymbol(new String(data, pos, length, StandardCharsets.UTF_8));
+                pos += length;
+            }
+            if ((presence & EVENT_DATA) != 0) {
+                int length = readVarInt(data, pos);
+                pos += varIntSize(length);
+                event.setEventData(new String(data, pos, length, StandardCharsets.UTF_8));
+            }
+            return event;
+
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated binary order event", e);
+        }
+    }
+
+    /**
+     * Wire codes are fixed per event type, so reordering the enum never changes the format.
+     */
+    static byte eventTypeCode(EventType eventType) {
+        return switch (eventType) {
+            case ORDER_CREATED -> 1;
+            case ORDER_CANCELLED -> 2;
+            case ORDER_EXECUTED -> 3;
+            case ORDER_FAILED -> 4;
+        };
+    }
+
+    static EventType eventType(byte code) {
+        return switch (code) {
+            case 1 -> EventType.ORDER_CREATED;
+            case 2 -> EventType.ORDER_CANCELLED;
+            case 3 -> EventType.ORDER_EXECUTED;
+            case 4 -> EventType.ORDER_FAILED;
+            default -> throw new IllegalArgumentException("Unknown event type code: " + code);
+        };
+    }
+
+    private static int writeLong(byte[] out, int pos, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out[pos++] = (byte) (value >>> shift);
+        }
+        return pos;
+    }
+
+    private static int writeInt(byte[] out, int pos, int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            out[pos++] = (byte) (value >>> shift);
+        }
+        return pos;
+    }
+
+    private static int writeBytes(byte[] out, int pos, byte[] bytes) {
+        int value = bytes.length;
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        System.arraycopy(bytes, 0, out, pos, bytes.length);
+        return pos + bytes.length;
+    }
+
+    private static long readLong(byte[] data, int pos) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[pos + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (data[pos + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int readVarInt(byte[] data, int pos) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = data[pos++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed length in binary order event");
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
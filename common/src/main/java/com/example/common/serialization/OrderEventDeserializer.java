@@ -0,0 +1,36 @@
+package com.example.common.serialization;
+
+import com.example.common.dto.OrderEventDto;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka deserializer for order events. Reads both the {@link OrderEventCodec} binary format and
+ * JSON, so producers can switch formats without coordinating with consumers.
+ */
+public class OrderEventDeserializer implements Deserializer<OrderEventDto> {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public OrderEventDto deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (OrderEventCodec.isBinary(data)) {
+                return OrderEventCodec.decode(data);
+            }
+            return objectMapper.readValue(data, OrderEventDto.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new SerializationException("Failed to deserialize order event from " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.common.serialization;
+
+import com.example.common.dto.OrderEventDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Kafka serializer for order events. Writes {@link OrderEventCodec} binary by default;
+ * set {@value #FORMAT_CONFIG}=json to produce readable JSON while debugging.
+ */
+public class OrderEventSerializer implements Serializer<OrderEventDto> {
+
+    public static final String FORMAT_CONFIG = "order-events.format";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private boolean json;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object format = configs.get(FORMAT_CONFIG);
+        json = format != null && "json".equalsIgnoreCase(format.toString());
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderEventDto data) {
+        if (data == null) {
+            return null;
+        }
+        if (!json) {
+            return OrderEventCodec.encode(data);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to serialize order event to JSON", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.common.serialization;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderEventCodecTest {
+
+	private static final OrderEventDto EVENT = new OrderEventDto(42L, "BTCUSD", EventType.ORDER_EXECUTED,
+			"{\"id\":42,\"price\":\"101.5\"}", Instant.parse("2024-05-01T12:00:00.123456789Z"));
+
+	@Test
+	void roundTripsAllFields() {
+		byte[] encoded = OrderEventCodec.encode(EVENT);
+
+		assertTrue(OrderEventCodec.isBinary(encoded));
+		assertEquals(EVENT, OrderEventCodec.decode(encoded));
+	}
+
+	@Test
+	void roundTripsMissingFields() {
+		OrderEventDto sparse = new OrderEventDto(7L, null, EventType.ORDER_CREATED, null, null);
+
+		assertEquals(sparse, OrderEventCodec.decode(OrderEventCodec.encode(sparse)));
+	}
+
+	@Test
+	void deserializerAcceptsJsonAndBinary() {
+		OrderEventSerializer json = new OrderEventSerializer();
+		json.configure(Map.of(OrderEventSerializer.FORMAT_CONFIG, "json"), false);
+		OrderEventSerializer binary = new OrderEventSerializer();
+		binary.configure(Map.of(), false);
+		OrderEventDeserializer deserializer = new OrderEventDeserializer();
+
+		byte[] jsonBytes = json.serialize("order-events", EVENT);
+		byte[] binaryBytes = binary.serialize("order-events", EVENT);
+
+		assertFalse(OrderEventCodec.isBinary(jsonBytes));
+		assertTrue(binaryBytes.length < jsonBytes.length);
+		assertEquals(EVENT, deserializer.deserialize("order-events", jsonBytes));
+		assertEquals(EVENT, deserializer.deserialize("order-events", binaryBytes));
+	}
+
+	@Test
+	void rejectsTruncatedPayload() {
+		byte[] encoded = OrderEventCodec.encode(EVENT);
+		byte[] truncated = Arrays.copyOf(encoded, encoded.length - 5);
+
+		assertThrows(IllegalArgumentException.class, () -> OrderEventCodec.decode(truncated));
+	}
+}
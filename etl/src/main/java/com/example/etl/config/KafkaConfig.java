@@ -1,8 +1,13 @@
 package com.example.etl.config;
 
+import com.example.common.dto.DlqMessage;
 import com.example.common.dto.OrderEventDto;
+import com.example.common.serialization.OrderEventDeserializer;
+import com.example.etl.service.EventRetryRouter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -10,26 +15,46 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 @Configuration
 @EnableKafka
+@RequiredArgsConstructor
 public class KafkaConfig {
     
+    private final MeterRegistry meterRegistry;
+    
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
     
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @Value("${etl.consumer.concurrency:1}")
+    private int concurrency;
+    
+    @Value("${etl.consumer.batch.max-poll-records:1000}")
+    private int batchMaxPollRecords;
+    
+    @Value("${etl.consumer.batch.commit-interval:5s}")
+    private Duration batchCommitInterval;
     
     @Bean
     public ObjectMapper objectMapper() {
@@ -52,24 +77,101 @@ public class KafkaConfig {
         
         // Set delegate deserializers
         configProps.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, StringDeserializer.class);
+        // Reads the binary order event format as well as JSON
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, OrderEventDeserializer.class);
+        
+        DefaultKafkaConsumerFactory<String, OrderEventDto> factory = new DefaultKafkaConsumerFactory<>(configProps);
+        // Client metrics, including kafka.consumer.fetch.manager.records.lag per topic and partition
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+    
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEventDto> batchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEventDto> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        // The sink stores its offsets with the events, Kafka commits only need to keep up for lag monitoring
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.TIME);
+        factory.getContainerProperties().setAckTime(batchCommitInterval.toMillis());
+        
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        
+        // Database outages are retried without limit: records before the failed one are committed,
+        // the rest is redelivered with growing pauses instead of being given up on
+        factory.setCommonErrorHandler(new DefaultErrorHandler(unboundedBackOff()));
+        
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("etl-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+        return factory;
+    }
+    
+    @Bean
+    public ConsumerFactory<String, DlqMessage> dlqConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, StringDeserializer.class);
         configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
         
-        // Configure JsonDeserializer
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderEventDto.class.getName());
+        // DLQ records are still written as JSON by DlqService
+        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.example.common.dto");
+        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, DlqMessage.class.getName());
         configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
         
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        DefaultKafkaConsumerFactory<String, DlqMessage> factory = new DefaultKafkaConsumerFactory<>(configProps);
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
     
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, OrderEventDto> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEventDto> kafkaListenerContainerFactory(EventRetryRouter retryRouter) {
         ConcurrentKafkaListenerContainerFactory<String, OrderEventDto> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // Listeners route their own failures to the retry topics. What reaches the error handler is either
+        // undeserializable (not retryable, straight to the DLQ), a failed retry topic send or an unavailable
+        // database (both redelivered)
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                (record, e) -> retryRouter.deadLetterUndeserializable(record), unboundedBackOff()));
+        if (virtualThreads) {
+            // Boot only applies virtual threads to the factory it configures itself
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("etl-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
         return factory;
     }
     
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DlqMessage> dlqListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DlqMessage> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(dlqConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // Storing a DLQ message is retried through short database outages, then the message is logged and skipped
+        ExponentialBackOff backOff = unboundedBackOff();
+        backOff.setMaxElapsedTime(300_000);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+    
+    private static ExponentialBackOff unboundedBackOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxInterval(30_000);
+        return backOff;
+    }
+    
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -80,7 +182,9 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
     
     @Bean
@@ -0,0 +1,57 @@
+package com.example.etl.config;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.etl.service.EventRetryConsumer;
+import com.example.etl.service.EventRetryRouter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+
+import java.lang.reflect.Method;
+
+/**
+ * Registers one listener container per retry tier, so a tier waiting for its delay never holds
+ * up the others or the main topic.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RetryTopicConfig implements KafkaListenerConfigurer {
+
+    private final EventRetryRouter retryRouter;
+    private final EventRetryConsumer retryConsumer;
+    private final ConcurrentKafkaListenerContainerFactory<String, OrderEventDto> kafkaListenerContainerFactory;
+    private final BeanFactory beanFactory;
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        DefaultMessageHandlerMethodFactory methodFactory = new DefaultMessageHandlerMethodFactory();
+        methodFactory.setBeanFactory(beanFactory);
+        methodFactory.afterPropertiesSet();
+
+        for (EventRetryRouter.RetryTier tier : retryRouter.getTiers()) {
+            MethodKafkaListenerEndpoint<String, OrderEventDto> endpoint = new MethodKafkaListenerEndpoint<>();
+            endpoint.setId(tier.topic());
+            endpoint.setTopics(tier.topic());
+            endpoint.setBean(retryConsumer);
+            endpoint.setMethod(handleRetryMethod());
+            endpoint.setMessageHandlerMethodFactory(methodFactory);
+            endpoint.setBeanFactory(beanFactory);
+            registrar.registerEndpoint(endpoint, kafkaListenerContainerFactory);
+        }
+    }
+
+    private static Method handleRetryMethod() {
+        try {
+            return EventRetryConsumer.class.getMethod("handleRetry", ConsumerRecord.class, Acknowledgment.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.etl.controller;
+
+import com.example.etl.model.dto.DlqFilter;
+import com.example.etl.model.dto.DlqGroup;
+import com.example.etl.model.dto.DlqPage;
+import com.example.etl.model.dto.DlqReplayStatus;
+import com.example.etl.model.dto.DlqStackTrace;
+import com.example.etl.service.DlqReplayService;
+import com.example.etl.service.DlqStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/dlq")
+@RequiredArgsConstructor
+@Slf4j
+public class DlqController {
+
+    private final DlqStore dlqStore;
+    private final DlqReplayService dlqReplayService;
+
+    @GetMapping("/messages")
+    public ResponseEntity<DlqPage> getMessages(
+            @RequestParam(required = false) String errorClass,
+            @RequestParam(required = false) String originalKey,
+            @RequestParam(required = false) String fingerprint,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Boolean replayed,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        log.debug("Received get DLQ messages request");
+        DlqFilter filter = new DlqFilter(errorClass, originalKey, fingerprint, from, to, replayed);
+        return ResponseEntity.ok(dlqStore.find(filter, afterId, size));
+    }
+
+    @GetMapping("/groups")
+    public ResponseEntity<List<DlqGroup>> getGroups(
+            @RequestParam(required = false) String errorClass,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Boolean replayed,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.debug("Received get DLQ groups request");
+        DlqFilter filter = new DlqFilter(errorClass, null, null, from, to, replayed);
+        return ResponseEntity.ok(dlqStore.groups(filter, limit));
+    }
+
+    @GetMapping("/stack-traces/{fingerprint}")
+    public ResponseEntity<DlqStackTrace> getStackTrace(@PathVariable String fingerprint) {
+        return ResponseEntity.of(dlqStore.stackTrace(fingerprint));
+    }
+
+    /**
+     * Queues a rate-limited replay of the matching messages that were not replayed yet.
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<DlqReplayStatus> replay(
+            @RequestParam(required = false) String errorClass,
+            @RequestParam(required = false) String originalKey,
+            @RequestParam(required = false) String fingerprint,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Received DLQ replay request: errorClass={}, originalKey={}, fingerprint={}, from={}, to={}, limit={}",
+                errorClass, originalKey, fingerprint, from, to, limit);
+        DlqFilter filter = new DlqFilter(errorClass, originalKey, fingerprint, from, to, false);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(dlqReplayService.replay(filter, limit));
+    }
+
+    @GetMapping("/replay/{id}")
+    public ResponseEntity<DlqReplayStatus> getReplay(@PathVariable long id) {
+        return ResponseEntity.of(dlqReplayService.status(id));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.etl.controller;
+
+import com.example.etl.service.archive.ArchivedEvent;
+import com.example.etl.service.archive.EventArchive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/events/archive")
+@RequiredArgsConstructor
+@Slf4j
+public class EventArchiveController {
+
+    private final EventArchive eventArchive;
+
+    /**
+     * Events that were moved out of the events table, oldest first.
+     */
+    @GetMapping
+    public ResponseEntity<List<ArchivedEvent>> findArchivedEvents(
+            @RequestParam(required = false) Long orderId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        log.debug("Received archived events request: orderId={}, from={}, to={}, limit={}", orderId, from, to, limit);
+        return ResponseEntity.ok(eventArchive.find(orderId, from, to, limit));
+    }
+}
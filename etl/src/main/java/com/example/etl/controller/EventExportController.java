@@ -0,0 +1,57 @@
+package com.example.etl.controller;
+
+import com.example.common.enums.EventType;
+import com.example.etl.service.EventExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Slf4j
+public class EventExportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private final EventExportService eventExportService;
+
+    /**
+     * Streams all matching events as NDJSON, gzip-encoded when the client accepts it.
+     * Written straight to the servlet response, so the export is not bound by the async request timeout.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportEvents(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Long orderId,
+            @RequestParam(required = false) EventType eventType,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        log.info("Received export events request: from={}, to={}, orderId={}, eventType={}", from, to, orderId, eventType);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events.ndjson\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE)
+                : response.getOutputStream()) {
+            eventExportService.export(from, to, orderId, eventType, out);
+        }
+    }
+}
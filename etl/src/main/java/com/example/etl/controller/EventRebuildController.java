@@ -0,0 +1,41 @@
+package com.example.etl.controller;
+
+import com.example.etl.model.dto.EventRebuildStatus;
+import com.example.etl.service.EventRebuildService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/events/rebuild")
+@RequiredArgsConstructor
+@Slf4j
+public class EventRebuildController {
+
+    private final EventRebuildService eventRebuildService;
+
+    /**
+     * Queues a rebuild of the events table from {@code order-events}, from a time or an offset on.
+     */
+    @PostMapping
+    public ResponseEntity<EventRebuildStatus> rebuild(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Long fromOffset) {
+        log.info("Received events rebuild request: from={}, fromOffset={}", from, fromOffset);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(eventRebuildService.rebuild(from, fromOffset));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<EventRebuildStatus> getRebuild(@PathVariable long id) {
+        return ResponseEntity.of(eventRebuildService.status(id));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.etl.controller;
+
+import com.example.etl.model.dto.ExecutionRollup;
+import com.example.etl.service.rollup.ExecutionRollups;
+import com.example.etl.service.rollup.RollupResolution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/rollups")
+@ConditionalOnProperty(name = "etl.rollups.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionRollupController {
+
+    private final ExecutionRollups executionRollups;
+
+    /**
+     * OHLC, volume and VWAP of a symbol per window, oldest first. Without a range, the last hour.
+     */
+    @GetMapping("/{symbol}")
+    public ResponseEntity<List<ExecutionRollup>> findRollups(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String resolution,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        log.debug("Received rollups request: symbol={}, resolution={}, from={}, to={}, limit={}", symbol, resolution, from, to, limit);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        return ResponseEntity.ok(executionRollups.find(symbol, RollupResolution.fromLabel(resolution), start, end, limit));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.etl.controller;
+
+import com.example.common.enums.OrderStatus;
+import com.example.etl.service.projection.OrderProjection;
+import com.example.etl.service.projection.ProjectedOrder;
+import com.example.etl.service.projection.SymbolTotals;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read model of current order state, served from the ETL's projection instead of the orders table.
+ */
+@RestController
+@RequestMapping("/projection")
+@ConditionalOnProperty(name = "etl.projection.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderProjectionController {
+
+    private final OrderProjection orderProjection;
+
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<ProjectedOrder> getOrder(@PathVariable long orderId) {
+        log.debug("Received projected order request: orderId={}", orderId);
+        return ResponseEntity.of(orderProjection.find(orderId));
+    }
+
+    @GetMapping("/status-counts")
+    public ResponseEntity<Map<OrderStatus, Long>> getStatusCounts() {
+        return ResponseEntity.ok(orderProjection.statusCounts());
+    }
+
+    @GetMapping("/symbols")
+    public ResponseEntity<List<SymbolTotals>> getSymbolTotals() {
+        return ResponseEntity.ok(orderProjection.symbolTotals());
+    }
+
+    @GetMapping("/symbols/{symbol}")
+    public ResponseEntity<SymbolTotals> getSymbolTotals(@PathVariable String symbol) {
+        return ResponseEntity.of(orderProjection.symbolTotals(symbol));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.etl.model.dto;
+
+import java.time.Instant;
+
+/**
+ * A stored DLQ message. The stack trace is referenced by fingerprint, see {@link DlqStackTrace}.
+ */
+public record DlqEntry(
+        long id,
+        String originalTopic,
+        String originalKey,
+        String originalMessage,
+        String errorClass,
+        String errorMessage,
+        String stackTraceFingerprint,
+        int retryCount,
+        Instant failedAt,
+        Instant replayedAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.etl.model.dto;
+
+import java.time.Instant;
+
+/**
+ * Optional filters for stored DLQ messages, null means no restriction. {@code from} and {@code to}
+ * bound the failure time as [from, to).
+ */
+public record DlqFilter(String errorClass, String originalKey, String fingerprint,
+                        Instant from, Instant to, Boolean replayed) {
+}
@@ -0,0 +1,9 @@
+package com.example.etl.model.dto;
+
+import java.time.Instant;
+
+/**
+ * Number of DLQ messages for one error class and original key.
+ */
+public record DlqGroup(String errorClass, String originalKey, long count, Instant firstFailedAt, Instant lastFailedAt) {
+}
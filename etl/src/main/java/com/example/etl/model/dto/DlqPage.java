@@ -0,0 +1,9 @@
+package com.example.etl.model.dto;
+
+import java.util.List;
+
+/**
+ * One page of DLQ messages in id order. {@code nextAfterId} is null on the last page.
+ */
+public record DlqPage(List<DlqEntry> items, Long nextAfterId) {
+}
@@ -0,0 +1,19 @@
+package com.example.etl.model.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of a DLQ replay. {@code skipped} counts messages that are not readable order events.
+ */
+public record DlqReplayStatus(
+        long id,
+        String state,
+        DlqFilter filter,
+        Integer limit,
+        long replayed,
+        long skipped,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {
+}
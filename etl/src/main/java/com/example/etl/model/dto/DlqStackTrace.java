@@ -0,0 +1,10 @@
+package com.example.etl.model.dto;
+
+import java.time.Instant;
+
+/**
+ * A distinct stack trace, stored once for all DLQ messages that failed the same way.
+ */
+public record DlqStackTrace(String fingerprint, String errorClass, String stackTrace, long occurrences,
+                            Instant firstSeenAt, Instant lastSeenAt) {
+}
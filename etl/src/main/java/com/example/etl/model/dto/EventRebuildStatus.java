@@ -0,0 +1,24 @@
+package com.example.etl.model.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of an events table rebuild. {@code carriedOver} counts rows kept from the old table,
+ * {@code archived} records not loaded because their events are archived, {@code skipped} records that
+ * are not readable order events and {@code rejected} records the database refused.
+ */
+public record EventRebuildStatus(
+        long id,
+        String state,
+        Instant from,
+        Long fromOffset,
+        long loaded,
+        long carriedOver,
+        long archived,
+        long skipped,
+        long rejected,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {
+}
@@ -0,0 +1,22 @@
+package com.example.etl.model.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Executions of a symbol in one window, as stored in {@code execution_rollups}.
+ */
+public record ExecutionRollup(
+        String symbol,
+        String resolution,
+        Instant windowStart,
+        long count,
+        BigDecimal quantity,
+        BigDecimal notional,
+        BigDecimal vwap,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal close
+) {
+}
@@ -39,6 +39,12 @@ public class Event {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
     
+    @Column(name = "source_partition")
+    private Integer sourcePartition;
+    
+    @Column(name = "source_offset")
+    private Long sourceOffset;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
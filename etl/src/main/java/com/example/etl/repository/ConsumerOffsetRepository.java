@@ -0,0 +1,61 @@
+package com.example.etl.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Next offset to consume per partition, written in the same transaction as the event rows
+ * so the database, not Kafka, says how far the sink got.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConsumerOffsetRepository {
+
+    private static final String UPSERT_OFFSET = """
+            INSERT INTO consumer_offsets (consumer_group, topic, partition_id, next_offset) VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE next_offset = GREATEST(next_offset, VALUES(next_offset))""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<TopicPartition, Long> find(String group, Collection<TopicPartition> partitions) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            jdbcTemplate.query("SELECT next_offset FROM consumer_offsets WHERE consumer_group = ? AND topic = ? AND partition_id = ?",
+                    rs -> {
+                        offsets.put(partition, rs.getLong("next_offset"));
+                    }, group, partition.topic(), partition.partition());
+        }
+        return offsets;
+    }
+
+    /**
+     * Forgets the stored offsets of partitions, e.g. ones stored for a topic that was recreated since.
+     */
+    public void delete(String group, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            jdbcTemplate.update("DELETE FROM consumer_offsets WHERE consumer_group = ? AND topic = ? AND partition_id = ?",
+                    group, partition.topic(), partition.partition());
+        }
+    }
+
+    /**
+     * Moves stored offsets forward, never back.
+     */
+    public void save(String group, Map<TopicPartition, Long> nextOffsets) {
+        List<Map.Entry<TopicPartition, Long>> entries = new ArrayList<>(nextOffsets.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_OFFSET, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, group);
+            ps.setString(2, entry.getKey().topic());
+            ps.setInt(3, entry.getKey().partition());
+            ps.setLong(4, entry.getValue());
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.etl.repository;
+
+import com.example.etl.model.dto.DlqEntry;
+import com.example.etl.model.dto.DlqFilter;
+import com.example.etl.model.dto.DlqGroup;
+import com.example.etl.model.dto.DlqStackTrace;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DLQ messages and the stack traces they reference. A stack trace row is written once per
+ * fingerprint and only counted afterwards.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DlqJdbcRepository {
+
+    private static final String UPSERT_STACK_TRACE = """
+            INSERT INTO dlq_stack_traces (fingerprint, error_class, stack_trace, first_seen_at, last_seen_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE occurrences = occurrences + 1, last_seen_at = VALUES(last_seen_at)""";
+
+    private static final String INSERT_MESSAGE = """
+            INSERT INTO dlq_messages (original_topic, original_key, original_message, error_class, error_message,
+                                      stack_trace_fingerprint, retry_count, failed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String MESSAGE_COLUMNS = "id, original_topic, original_key, original_message, error_class, "
+            + "error_message, stack_trace_fingerprint, retry_count, failed_at, replayed_at";
+
+    private static final RowMapper<DlqEntry> ENTRY_MAPPER = (rs, rowNum) -> new DlqEntry(
+            rs.getLong("id"),
+            rs.getString("original_topic"),
+            rs.getString("original_key"),
+            rs.getString("original_message"),
+            rs.getString("error_class"),
+            rs.getString("error_message"),
+            rs.getString("stack_trace_fingerprint"),
+            rs.getInt("retry_count"),
+            toInstant(rs.getTimestamp("failed_at")),
+            toInstant(rs.getTimestamp("replayed_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertStackTrace(String fingerprint, String errorClass, String stackTrace, Instant seenAt) {
+        jdbcTemplate.update(UPSERT_STACK_TRACE, fingerprint, errorClass, stackTrace, Timestamp.from(seenAt), Timestamp.from(seenAt));
+    }
+
+    public void insertMessage(String originalTopic, String originalKey, String originalMessage, String errorClass,
+                              String errorMessage, String fingerprint, int retryCount, Instant failedAt) {
+        jdbcTemplate.update(INSERT_MESSAGE, originalTopic, originalKey, originalMessage, errorClass, errorMessage,
+                fingerprint, retryCount, Timestamp.from(failedAt));
+    }
+
+    /**
+     * Up to {@code limit} matching messages with an id above {@code afterId}, in id order.
+     */
+    public List<DlqEntry> findAfter(DlqFilter filter, long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + MESSAGE_COLUMNS + " FROM dlq_messages WHERE id > ?");
+        args.add(afterId);
+        appendFilter(sql, args, filter);
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ENTRY_MAPPER, args.toArray());
+    }
+
+    public List<DlqGroup> groupByErrorClassAndKey(DlqFilter filter, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT error_class, original_key, COUNT(*) AS message_count, "
+                + "MIN(failed_at) AS first_failed_at, MAX(failed_at) AS last_failed_at FROM dlq_messages WHERE 1 = 1");
+        appendFilter(sql, args, filter);
+        sql.append(" GROUP BY error_class, original_key ORDER BY message_count DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new DlqGroup(
+                rs.getString("error_class"),
+                rs.getString("original_key"),
+                rs.getLong("message_count"),
+                toInstant(rs.getTimestamp("first_failed_at")),
+                toInstant(rs.getTimestamp("last_failed_at"))), args.toArray());
+    }
+
+    public Optional<DlqStackTrace> findStackTrace(String fingerprint) {
+        return jdbcTemplate.query("""
+                SELECT fingerprint, error_class, stack_trace, occurrences, first_seen_at, last_seen_at
+                FROM dlq_stack_traces WHERE fingerprint = ?""", (rs, rowNum) -> new DlqStackTrace(
+                rs.getString("fingerprint"),
+                rs.getString("error_class"),
+                rs.getString("stack_trace"),
+                rs.getLong("occurrences"),
+                toInstant(rs.getTimestamp("first_seen_at")),
+                toInstant(rs.getTimestamp("last_seen_at"))), fingerprint).stream().findFirst();
+    }
+
+    public void markReplayed(List<Long> ids, Instant replayedAt) {
+        jdbcTemplate.batchUpdate("UPDATE dlq_messages SET replayed_at = ? WHERE id = ?", ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, Timestamp.from(replayedAt));
+            ps.setLong(2, id);
+        });
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> args, DlqFilter filter) {
+        if (filter.errorClass() != null) {
+            sql.append(" AND error_class = ?");
+            args.add(filter.errorClass());
+        }
+        if (filter.originalKey() != null) {
+            sql.append(" AND original_key = ?");
+            args.add(filter.originalKey());
+        }
+        if (filter.fingerprint() != null) {
+            sql.append(" AND stack_trace_fingerprint = ?");
+            args.add(filter.fingerprint());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND failed_at >= ?");
+            args.add(Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND failed_at < ?");
+            args.add(Timestamp.from(filter.to()));
+        }
+        if (filter.replayed() != null) {
+            sql.append(filter.replayed() ? " AND replayed_at IS NOT NULL" : " AND replayed_at IS NULL");
+        }
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.etl.repository;
+
+import com.example.common.dto.OrderEventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Bulk writes to the events table. Goes around JPA because the IDENTITY id of {@code Event}
+ * makes Hibernate insert row by row; with {@code rewriteBatchedStatements=true} Connector/J
+ * turns the JDBC batch into multi-row INSERT statements.
+ * <p>
+ * A row whose source partition and offset are already stored is left as it is, so redelivered
+ * records are not stored twice. Unlike {@code INSERT IGNORE} this still fails on bad data.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventJdbcRepository {
+
+    private static final String INSERT_EVENT = """
+            INSERT INTO events (order_id, event_type, event_data, created_at, source_partition, source_offset)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE id = id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * An event with the {@code order-events} partition and offset it was first read from. The source
+     * key includes {@code createdAt}, so it has to be the same on every delivery.
+     */
+    public record EventRow(OrderEventDto event, Instant createdAt, int sourcePartition, long sourceOffset) {
+    }
+
+    public void insertAll(List<EventRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows, rows.size(), (ps, row) -> {
+            OrderEventDto event = row.event();
+            ps.setLong(1, event.getOrderId());
+            ps.setString(2, event.getEventType().name());
+            ps.setString(3, event.getEventData());
+            ps.setTimestamp(4, Timestamp.from(row.createdAt()));
+            ps.setInt(5, row.sourcePartition());
+            ps.setLong(6, row.sourceOffset());
+        });
+    }
+}
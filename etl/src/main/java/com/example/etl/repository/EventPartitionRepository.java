@@ -0,0 +1,155 @@
+package com.example.etl.repository;
+
+import com.example.common.enums.EventType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Partition maintenance for the events table, which is partitioned by RANGE on
+ * {@code UNIX_TIMESTAMP(created_at)} with a trailing {@code p_future} MAXVALUE partition.
+ * Expired partitions are detached into standalone {@code events_archive_<partition>_<millis>} tables
+ * before they are archived.
+ */
+@Repository
+public class EventPartitionRepository {
+
+    public static final String FUTURE_PARTITION = "p_future";
+    public static final String DETACHED_TABLE_PREFIX = "events_archive_";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("p[0-9]{8}");
+    private static final Pattern DETACHED_TABLE_NAME = Pattern.compile("events_archive_p[0-9]{8}_[0-9]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public EventPartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // Connector/J streams rows one by one instead of buffering the whole partition
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * A range partition; {@code lessThan} is null for {@code p_future}.
+     */
+    public record Partition(String name, Instant lessThan) {
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(long id, long orderId, EventType eventType, String eventData, Instant createdAt) throws Exception;
+    }
+
+    /**
+     * Partitions in range order, or an empty list when the table is not partitioned.
+     */
+    public List<Partition> findPartitions() {
+        return jdbcTemplate.query("""
+                SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'events' AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION""", (rs, rowNum) -> {
+            String bound = rs.getString("PARTITION_DESCRIPTION");
+            return new Partition(rs.getString("PARTITION_NAME"),
+                    "MAXVALUE".equals(bound) ? null : Instant.ofEpochSecond(Long.parseLong(bound)));
+        });
+    }
+
+    /**
+     * Splits new partitions off the front of {@code p_future}. Cheap while {@code p_future} is empty,
+     * which it stays as long as partitions are created ahead of time.
+     */
+    public void addPartitions(List<Partition> partitions) {
+        StringBuilder sql = new StringBuilder("ALTER TABLE events REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (");
+        for (Partition partition : partitions) {
+            sql.append("PARTITION ").append(checkName(partition.name()))
+                    .append(" VALUES LESS THAN (").append(partition.lessThan().getEpochSecond()).append("), ");
+        }
+        sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN MAXVALUE)");
+        jdbcTemplate.execute(sql.toString());
+    }
+
+    /**
+     * Moves the rows of a partition into a new table and drops the now empty partition. Both happen under
+     * a write lock on events, so a row written meanwhile waits and then lands in the next partition
+     * instead of being dropped; exchanging and dropping are metadata operations, the lock is brief.
+     */
+    public void detachPartition(String name, String table) {
+        checkName(name);
+        checkTable(table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " LIKE events");
+        jdbcTemplate.execute("ALTER TABLE " + table + " REMOVE PARTITIONING");
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLES events WRITE, " + table + " WRITE");
+                try {
+                    statement.execute("ALTER TABLE events EXCHANGE PARTITION " + name + " WITH TABLE " + table);
+                    statement.execute("ALTER TABLE events DROP PARTITION " + name);
+                } finally {
+                    statement.execute("UNLOCK TABLES");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Detached tables that have not been archived and dropped yet, oldest partition first.
+     */
+    public List<String> findDetachedTables() {
+        return jdbcTemplate.queryForList("""
+                SELECT TABLE_NAME FROM information_schema.TABLES
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE 'events\\_archive\\_p%'
+                ORDER BY TABLE_NAME""", String.class).stream()
+                .filter(table -> DETACHED_TABLE_NAME.matcher(table).matches())
+                .toList();
+    }
+
+    /**
+     * Streams the rows of a detached table ordered by order id.
+     */
+    public void streamDetached(String table, RowConsumer consumer) {
+        // The order_id index holds the primary key, so this order needs no sort
+        streamingJdbcTemplate.query("SELECT id, order_id, event_type, event_data, created_at FROM "
+                + checkTable(table) + " ORDER BY order_id, id", rs -> {
+            try {
+                consumer.accept(rs.getLong("id"), rs.getLong("order_id"), EventType.valueOf(rs.getString("event_type")),
+                        rs.getString("event_data"), rs.getTimestamp("created_at").toInstant());
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to archive events of " + table, e);
+            }
+        });
+    }
+
+    public void dropDetached(String table) {
+        jdbcTemplate.execute("DROP TABLE " + checkTable(table));
+    }
+
+    public static String detachedTable(String partition, long detachedAtMillis) {
+        return DETACHED_TABLE_PREFIX + checkName(partition) + "_" + detachedAtMillis;
+    }
+
+    private static String checkName(String name) {
+        // Partition names end up in DDL, which cannot take bind parameters
+        if (!PARTITION_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid events partition name: " + name);
+        }
+        return name;
+    }
+
+    private static String checkTable(String table) {
+        if (!DETACHED_TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid detached events table name: " + table);
+        }
+        return table;
+    }
+}
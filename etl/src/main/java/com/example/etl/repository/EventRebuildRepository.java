@@ -0,0 +1,148 @@
+package com.example.etl.repository;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.etl.repository.EventJdbcRepository.EventRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Staging table for rebuilding {@code events}: created like {@code events}, loaded without its
+ * secondary indexes, indexed in one pass at the end and renamed into place.
+ */
+@Repository
+public class EventRebuildRepository {
+
+    public static final String STAGING_TABLE = "events_rebuild";
+    public static final String PREVIOUS_TABLE = "events_previous";
+
+    private static final String COLUMNS = "order_id, event_type, event_data, created_at, source_partition, source_offset";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventRebuildRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * A secondary index, with prefix lengths in {@code columns} where it has them.
+     */
+    public record Index(String name, boolean unique, List<String> columns) {
+
+        String definition() {
+            return (unique ? "UNIQUE KEY " : "INDEX ") + quote(name) + " (" + String.join(", ", columns) + ")";
+        }
+    }
+
+    /**
+     * Creates an empty staging table with the columns, keys and partitions of {@code events}.
+     */
+    public void createStaging() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + STAGING_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + STAGING_TABLE + " LIKE events");
+    }
+
+    public List<Index> findSecondaryIndexes() {
+        Map<String, Index> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT INDEX_NAME, NON_UNIQUE, COLUMN_NAME, SUB_PART FROM information_schema.STATISTICS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME <> 'PRIMARY'
+                ORDER BY INDEX_NAME, SEQ_IN_INDEX""", rs -> {
+            String column = quote(rs.getString("COLUMN_NAME"));
+            long prefix = rs.getLong("SUB_PART");
+            if (!rs.wasNull()) {
+                column += "(" + prefix + ")";
+            }
+            boolean unique = !rs.getBoolean("NON_UNIQUE");
+            indexes.computeIfAbsent(rs.getString("INDEX_NAME"), name -> new Index(name, unique, new ArrayList<>()))
+                    .columns().add(column);
+        }, STAGING_TABLE);
+        return new ArrayList<>(indexes.values());
+    }
+
+    public void dropIndexes(List<Index> indexes) {
+        if (!indexes.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " "
+                    + indexes.stream().map(index -> "DROP INDEX " + quote(index.name())).collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * Builds all indexes in a single pass over the loaded table.
+     */
+    public void addIndexes(List<Index> indexes) {
+        if (!indexes.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " "
+                    + indexes.stream().map(index -> "ADD " + index.definition()).collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * Carries rows of {@code events} that will not be reloaded over to the staging table, keeping their
+     * ids: rows without a source, per partition the rows below {@code startOffsets}, and rows created
+     * before {@code archivedBefore} (null when nothing is archived), whose records are not reloaded either.
+     */
+    public long copyBefore(Map<Integer, Long> startOffsets, Instant archivedBefore) {
+        String insert = "INSERT INTO " + STAGING_TABLE + " (id, " + COLUMNS + ") SELECT id, " + COLUMNS + " FROM events WHERE ";
+        long copied = jdbcTemplate.update(insert + "source_partition IS NULL");
+        for (Map.Entry<Integer, Long> start : startOffsets.entrySet()) {
+            copied += jdbcTemplate.update(insert + "source_partition = ? AND source_offset < ?", start.getKey(), start.getValue());
+            if (archivedBefore != null) {
+                copied += jdbcTemplate.update(insert + "source_partition = ? AND source_offset >= ? AND created_at < ?",
+                        start.getKey(), start.getValue(), Timestamp.from(archivedBefore));
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Multi-row inserts into the staging table; it has no unique key while loading.
+     */
+    public void insertAll(List<EventRow> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO " + STAGING_TABLE + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)",
+                rows, rows.size(), (ps, row) -> {
+                    OrderEventDto event = row.event();
+                    ps.setLong(1, event.getOrderId());
+                    ps.setString(2, event.getEventType().name());
+                    ps.setString(3, event.getEventData());
+                    ps.setTimestamp(4, Timestamp.from(row.createdAt()));
+                    ps.setInt(5, row.sourcePartition());
+                    ps.setLong(6, row.sourceOffset());
+                });
+    }
+
+    /**
+     * Atomically puts the staging table in place of {@code events}, keeping the old one as
+     * {@code events_previous}. Writes to {@code events} in progress finish on the old table first.
+     */
+    public void swap() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + PREVIOUS_TABLE);
+        jdbcTemplate.execute("RENAME TABLE events TO " + PREVIOUS_TABLE + ", " + STAGING_TABLE + " TO events");
+    }
+
+    /**
+     * Copies what the sink wrote to the old table from {@code endOffsets} on, while the staging table was
+     * loaded. Rows already in the new table are left as they are.
+     */
+    public long copyAfter(Map<Integer, Long> endOffsets) {
+        long copied = 0;
+        for (Map.Entry<Integer, Long> end : endOffsets.entrySet()) {
+            copied += jdbcTemplate.update("INSERT INTO events (" + COLUMNS + ") SELECT " + COLUMNS + " FROM " + PREVIOUS_TABLE
+                    + " WHERE source_partition = ? AND source_offset >= ? ON DUPLICATE KEY UPDATE events.id = events.id",
+                    end.getKey(), end.getValue());
+        }
+        return copied;
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.etl.repository;
+
+import com.example.etl.model.dto.ExecutionRollup;
+import com.example.etl.service.rollup.Rollup;
+import com.example.etl.service.rollup.RollupResolution;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Execution rollups, one row per symbol, resolution and window. Flushes carry the executions since
+ * the previous flush and are merged into the stored rows, so a window can be written any number of times.
+ */
+@Repository
+public class ExecutionRollupRepository {
+
+    // Assignments run left to right: open and close compare against open_at and close_at before they move
+    private static final String MERGE_ROLLUP = """
+            INSERT INTO execution_rollups (symbol, resolution, window_start, trade_count, quantity, notional,
+                open_price, open_at, high_price, low_price, close_price, close_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE trade_count = trade_count + VALUES(trade_count),
+                quantity = quantity + VALUES(quantity), notional = notional + VALUES(notional),
+                open_price = IF(VALUES(open_at) < open_at, VALUES(open_price), open_price),
+                open_at = LEAST(open_at, VALUES(open_at)),
+                high_price = GREATEST(high_price, VALUES(high_price)), low_price = LEAST(low_price, VALUES(low_price)),
+                close_price = IF(VALUES(close_at) >= close_at, VALUES(close_price), close_price),
+                close_at = GREATEST(close_at, VALUES(close_at))""";
+
+    private static final String SELECT_ROLLUPS = """
+            SELECT symbol, resolution, window_start, trade_count, quantity, notional,
+                ROUND(notional / NULLIF(quantity, 0), 8) AS vwap, open_price, high_price, low_price, close_price
+            FROM execution_rollups
+            WHERE symbol = ? AND resolution = ? AND window_start >= ? AND window_start < ?
+            ORDER BY window_start
+            LIMIT ?""";
+
+    private static final RowMapper<ExecutionRollup> ROW_MAPPER = (rs, rowNum) -> new ExecutionRollup(
+            rs.getString("symbol"),
+            rs.getString("resolution"),
+            rs.getTimestamp("window_start").toInstant(),
+            rs.getLong("trade_count"),
+            rs.getBigDecimal("quantity"),
+            rs.getBigDecimal("notional"),
+            rs.getBigDecimal("vwap"),
+            rs.getBigDecimal("open_price"),
+            rs.getBigDecimal("high_price"),
+            rs.getBigDecimal("low_price"),
+            rs.getBigDecimal("close_price"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExecutionRollupRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Windows of a symbol starting in [from, to), oldest first.
+     */
+    public List<ExecutionRollup> find(String symbol, RollupResolution resolution, Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(SELECT_ROLLUPS, ROW_MAPPER,
+                symbol, resolution.label(), Timestamp.from(from), Timestamp.from(to), limit);
+    }
+
+    public void mergeAll(Collection<Rollup> rollups) {
+        List<Rollup> rows = new ArrayList<>(rollups);
+        jdbcTemplate.batchUpdate(MERGE_ROLLUP, rows, rows.size(), (ps, rollup) -> {
+            ps.setString(1, rollup.key().symbol());
+            ps.setString(2, rollup.key().resolution().label());
+            ps.setTimestamp(3, Timestamp.from(rollup.key().windowStart()));
+            ps.setLong(4, rollup.count());
+            ps.setBigDecimal(5, rollup.quantity());
+            ps.setBigDecimal(6, rollup.notional());
+            ps.setBigDecimal(7, rollup.open());
+            ps.setTimestamp(8, Timestamp.from(rollup.openAt()));
+            ps.setBigDecimal(9, rollup.high());
+            ps.setBigDecimal(10, rollup.low());
+            ps.setBigDecimal(11, rollup.close());
+            ps.setTimestamp(12, Timestamp.from(rollup.closeAt()));
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.etl.repository;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.etl.service.projection.ProjectedOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot of the order projection, one row per order. Rows are written with the projection's
+ * offsets in {@code consumer_offsets}, so the table always matches a position in {@code order-events}.
+ */
+@Repository
+public class OrderProjectionRepository {
+
+    private static final String UPSERT_ORDER = """
+            INSERT INTO order_projection (order_id, symbol, side, status, quantity, price, filled_quantity,
+                filled_notional, source_partition, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE side = VALUES(side), status = VALUES(status), quantity = VALUES(quantity),
+                price = VALUES(price), filled_quantity = VALUES(filled_quantity), filled_notional = VALUES(filled_notional),
+                updated_at = VALUES(updated_at)""";
+
+    private static final String SELECT_ORDER = """
+            SELECT order_id, symbol, side, status, quantity, price, filled_quantity, filled_notional,
+                source_partition, created_at, updated_at FROM order_projection""";
+
+    private static final RowMapper<ProjectedOrder> ROW_MAPPER = (rs, rowNum) -> new ProjectedOrder(
+            rs.getLong("order_id"),
+            rs.getString("symbol"),
+            rs.getString("side") != null ? OrderSide.valueOf(rs.getString("side")) : null,
+            OrderStatus.valueOf(rs.getString("status")),
+            rs.getBigDecimal("quantity"),
+            rs.getBigDecimal("price"),
+            rs.getBigDecimal("filled_quantity"),
+            rs.getBigDecimal("filled_notional"),
+            rs.getInt("source_partition"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getTimestamp("updated_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public OrderProjectionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // Connector/J streams rows one by one instead of buffering every order of the partitions
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public Optional<ProjectedOrder> find(long orderId) {
+        return jdbcTemplate.query(SELECT_ORDER + " WHERE order_id = ?", ROW_MAPPER, orderId).stream().findFirst();
+    }
+
+    /**
+     * Passes every order of the given {@code order-events} partitions to {@code consumer}.
+     */
+    public void streamPartitions(Collection<Integer> partitions, Consumer<ProjectedOrder> consumer) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(partitions.size(), "?"));
+        streamingJdbcTemplate.query(SELECT_ORDER + " WHERE source_partition IN (" + placeholders + ")",
+                rs -> {
+                    consumer.accept(ROW_MAPPER.mapRow(rs, 0));
+                }, partitions.toArray());
+    }
+
+    public void deletePartitions(Collection<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(partitions.size(), "?"));
+        jdbcTemplate.update("DELETE FROM order_projection WHERE source_partition IN (" + placeholders + ")", partitions.toArray());
+    }
+
+    public void saveAll(Collection<ProjectedOrder> orders) {
+        List<ProjectedOrder> rows = new ArrayList<>(orders);
+        jdbcTemplate.batchUpdate(UPSERT_ORDER, rows, rows.size(), (ps, order) -> {
+            ps.setLong(1, order.orderId());
+            ps.setString(2, order.symbol());
+            ps.setString(3, order.side() != null ? order.side().name() : null);
+            ps.setString(4, order.status().name());
+            ps.setBigDecimal(5, order.quantity());
+            ps.setBigDecimal(6, order.price());
+            ps.setBigDecimal(7, order.filledQuantity());
+            ps.setBigDecimal(8, order.filledNotional());
+            ps.setInt(9, order.sourcePartition());
+            ps.setTimestamp(10, Timestamp.from(order.createdAt()));
+            ps.setTimestamp(11, Timestamp.from(order.updatedAt()));
+        });
+    }
+}
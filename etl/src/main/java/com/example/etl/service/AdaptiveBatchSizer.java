@@ -0,0 +1,49 @@
+package com.example.etl.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses how many events go into one insert transaction, AIMD style: grows by a fixed step
+ * while writes finish within the target latency and halves as soon as one does not. The size
+ * follows the database instead of being tuned by hand for one load level.
+ */
+public class AdaptiveBatchSizer {
+
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+    private final long targetLatencyNanos;
+    private final AtomicInteger size;
+
+    public AdaptiveBatchSizer(int minSize, int maxSize, Duration targetLatency) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Batch size bounds must satisfy 1 <= min <= max");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = minSize;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.size = new AtomicInteger(minSize);
+    }
+
+    public int currentSize() {
+        return size.get();
+    }
+
+    public int minSize() {
+        return minSize;
+    }
+
+    /**
+     * Feeds back one write. Only full-size writes grow the size, so small batches at low load
+     * do not inflate it.
+     */
+    public void record(int writtenSize, long latencyNanos) {
+        if (latencyNanos > targetLatencyNanos) {
+            size.updateAndGet(current -> Math.max(minSize, current / 2));
+        } else if (writtenSize >= size.get()) {
+            size.updateAndGet(current -> Math.min(maxSize, current + step));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.etl.service;
+
+import java.time.Duration;
+
+/**
+ * Judges how much load the database takes from the sink, from moving averages of write latency and
+ * of the share of writes failing on connection or other transient errors.
+ * <ul>
+ *     <li>{@code NORMAL}: writes are fast</li>
+ *     <li>{@code THROTTLED}: writes are slow or some fail; write less at a time</li>
+ *     <li>{@code PAUSED}: writes stall or mostly fail; stop writing until probes of the database are
+ *     fast {@code recoveryProbes} times in a row, then go on throttled</li>
+ * </ul>
+ * Leaving {@code THROTTLED} takes latency well below the slow threshold, so the level does not
+ * flap around it. Without writes the averages decay, so an idle sink is not held back by old samples.
+ */
+public class DatabasePressure {
+
+    public enum Level {
+        NORMAL,
+        THROTTLED,
+        PAUSED
+    }
+
+    private static final double WEIGHT = 0.2;
+
+    private final long slowNanos;
+    private final long stallNanos;
+    private final double maxErrorRate;
+    private final int recoveryProbes;
+
+    // Guarded by this
+    private double latencyNanos;
+    private double errorRate;
+    private int writes;
+    private int healthyProbes;
+    private Level level = Level.NORMAL;
+
+    public DatabasePressure(Duration slowLatency, Duration stallLatency, double maxErrorRate, int recoveryProbes) {
+        if (slowLatency.compareTo(stallLatency) >= 0) {
+            throw new IllegalArgumentException("Slow latency must be below stall latency");
+        }
+        if (maxErrorRate <= 0 || maxErrorRate > 1 || recoveryProbes < 1) {
+            throw new IllegalArgumentException("Max error rate must be in (0, 1] and recovery probes positive");
+        }
+        this.slowNanos = slowLatency.toNanos();
+        this.stallNanos = stallLatency.toNanos();
+        this.maxErrorRate = maxErrorRate;
+        this.recoveryProbes = recoveryProbes;
+    }
+
+    public synchronized void recordWrite(long latency) {
+        latencyNanos += WEIGHT * (latency - latencyNanos);
+        errorRate -= WEIGHT * errorRate;
+        writes++;
+    }
+
+    public synchronized void recordFailure() {
+        errorRate += WEIGHT * (1 - errorRate);
+        writes++;
+    }
+
+    /**
+     * Moves to the level the writes since the last update call for. While paused, nothing is written and
+     * {@code probeNanos}, the time a probe of the database took or null if it failed, decides instead.
+     */
+    public synchronized Level update(Long probeNanos) {
+        if (level == Level.PAUSED) {
+            healthyProbes = probeNanos != null && probeNanos < slowNanos ? healthyProbes + 1 : 0;
+            if (healthyProbes >= recoveryProbes) {
+                level = Level.THROTTLED;
+                latencyNanos = probeNanos;
+                errorRate = 0;
+                healthyProbes = 0;
+            }
+            writes = 0;
+            return level;
+        }
+
+        if (writes == 0) {
+            latencyNanos -= WEIGHT * latencyNanos;
+            errorRate -= WEIGHT * errorRate;
+        }
+        writes = 0;
+
+        if (errorRate >= maxErrorRate || latencyNanos >= stallNanos) {
+            level = Level.PAUSED;
+        } else if (errorRate >= maxErrorRate / 2 || latencyNanos >= slowNanos
+                || level == Level.THROTTLED && (errorRate >= maxErrorRate / 10 || latencyNanos >= slowNanos / 2)) {
+            level = Level.THROTTLED;
+        } else {
+            level = Level.NORMAL;
+        }
+        return level;
+    }
+
+    public synchronized Level level() {
+        return level;
+    }
+
+    public synchronized double latencyMillis() {
+        return latencyNanos / 1_000_000;
+    }
+
+    public synchronized double errorRate() {
+        return errorRate;
+    }
+}
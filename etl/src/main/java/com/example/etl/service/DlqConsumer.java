@@ -16,7 +16,10 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class DlqConsumer {
 
-    @KafkaListener(topics = Constants.ORDER_EVENTS_DLQ_TOPIC, groupId = "dlq-monitoring-group")
+    private final DlqStore dlqStore;
+
+    @KafkaListener(topics = Constants.ORDER_EVENTS_DLQ_TOPIC, groupId = "dlq-monitoring-group",
+            containerFactory = "dlqListenerContainerFactory")
     public void handleDlqMessage(
             @Payload DlqMessage dlqMessage,
             @Header(KafkaHeaders.RECEIVED_KEY) String key,
@@ -25,42 +28,16 @@ public class DlqConsumer {
             @Header(KafkaHeaders.OFFSET) long offset,
             Acknowledgment acknowledgment) {
 
-        try {
-            log.error("DLQ Message received - Topic: {}, Key: {}, Partition: {}, Offset: {}", 
-                topic, key, partition, offset);
-            log.error("Original Topic: {}, Original Key: {}, Retry Count: {}, Failed At: {}", 
-                dlqMessage.getOriginalTopic(), dlqMessage.getOriginalKey(), 
-                dlqMessage.getRetryCount(), dlqMessage.getFailedAt());
-            log.error("Error Message: {}", dlqMessage.getErrorMessage());
-            log.error("Original Message: {}", dlqMessage.getOriginalMessage());
-            
-            // Here you could implement:
-            // 1. Save to a dead letter database table for analysis
-            // 2. Send alerts to monitoring systems
-            // 3. Trigger manual intervention workflows
-            // 4. Attempt reprocessing after fixing issues
-            
-            processFailedMessage(dlqMessage);
-            
-            acknowledgment.acknowledge();
-            
-        } catch (Exception e) {
-            log.error("Failed to process DLQ message: key={}, error={}", key, e.getMessage(), e);
-            // Even if DLQ processing fails, we should acknowledge to prevent loops
-            acknowledgment.acknowledge();
-        }
-    }
-    
-    private void processFailedMessage(DlqMessage dlqMessage) {
-        // Implementation could include:
-        // - Storing in a dedicated DLQ database table for analysis
-        // - Sending notifications to administrators
-        // - Creating tickets in issue tracking systems
-        // - Metrics collection for monitoring dashboards
+        log.error("DLQ Message received - Topic: {}, Key: {}, Partition: {}, Offset: {}", 
+            topic, key, partition, offset);
+        log.error("Original Topic: {}, Original Key: {}, Retry Count: {}, Failed At: {}", 
+            dlqMessage.getOriginalTopic(), dlqMessage.getOriginalKey(), 
+            dlqMessage.getRetryCount(), dlqMessage.getFailedAt());
+        log.error("Error Message: {}", dlqMessage.getErrorMessage());
         
-        log.warn("Processing failed message for monitoring: originalTopic={}, retryCount={}, errorMessage={}", 
-            dlqMessage.getOriginalTopic(), dlqMessage.getRetryCount(), dlqMessage.getErrorMessage());
+        // Store for analysis and replay; a failure here is redelivered by the container error handler
+        dlqStore.store(dlqMessage);
         
-        // For now, just log the failure for monitoring purposes
+        acknowledgment.acknowledge();
     }
 }
\ No newline at end of file
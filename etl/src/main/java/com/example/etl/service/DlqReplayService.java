@@ -0,0 +1,194 @@
+package com.example.etl.service;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import com.example.common.exception.InvalidRequestException;
+import com.example.etl.model.dto.DlqEntry;
+import com.example.etl.model.dto.DlqFilter;
+import com.example.etl.model.dto.DlqReplayStatus;
+import com.example.etl.repository.DlqJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Republishes stored DLQ messages onto {@code order-events}. Replays run one at a time in the
+ * background and all share one send rate, {@code etl.dlq.replay.rate-per-second}, so a large replay
+ * cannot swamp the live pipeline. Messages are marked replayed once the broker has acknowledged them;
+ * a replay interrupted by a restart resends only what was not marked.
+ */
+@Service
+@Slf4j
+public class DlqReplayService {
+
+    private final DlqJdbcRepository dlqJdbcRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter replayedCounter;
+    private final ExecutorService replayExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("dlq-replay-"));
+    private final Map<Long, ReplayJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final long sendIntervalNanos;
+
+    @Value("${etl.dlq.replay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${etl.dlq.replay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    public DlqReplayService(DlqJdbcRepository dlqJdbcRepository,
+                            KafkaTemplate<String, Object> kafkaTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${etl.dlq.replay.rate-per-second:100}") int ratePerSecond) {
+        if (ratePerSecond < 1) {
+            throw new IllegalArgumentException("etl.dlq.replay.rate-per-second must be positive");
+        }
+        this.dlqJdbcRepository = dlqJdbcRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.replayedCounter = meterRegistry.counter("etl.dlq.replayed");
+        this.sendIntervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+    }
+
+    /**
+     * Queues a replay of the not yet replayed messages matching {@code filter}, at most {@code limit}
+     * of them when given.
+     */
+    public DlqReplayStatus replay(DlqFilter filter, Integer limit) {
+        if (Boolean.TRUE.equals(filter.replayed())) {
+            throw new InvalidRequestException("Replayed messages cannot be replayed again");
+        }
+        if (limit != null && limit < 1) {
+            throw new InvalidRequestException("Limit must be positive");
+        }
+        DlqFilter pending = new DlqFilter(filter.errorClass(), filter.originalKey(), filter.fingerprint(),
+                filter.from(), filter.to(), false);
+        ReplayJob job = new ReplayJob(jobIds.incrementAndGet(), pending, limit);
+        jobs.put(job.id, job);
+        replayExecutor.execute(() -> run(job));
+        log.info("DLQ replay queued: id={}, filter={}, limit={}", job.id, pending, limit);
+        return job.status();
+    }
+
+    public Optional<DlqReplayStatus> status(long id) {
+        return Optional.ofNullable(jobs.get(id)).map(ReplayJob::status);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        replayExecutor.shutdownNow();
+    }
+
+    private void run(ReplayJob job) {
+        job.state = "RUNNING";
+        try {
+            long afterId = 0;
+            long nextSendAt = System.nanoTime();
+            while (!Thread.currentThread().isInterrupted()) {
+                int remaining = job.limit == null ? batchSize : (int) Math.min(batchSize, job.limit - job.replayed.get() - job.skipped.get());
+                if (remaining <= 0) {
+                    break;
+                }
+                List<DlqEntry> entries = dlqJdbcRepository.findAfter(job.filter, afterId, remaining);
+                if (entries.isEmpty()) {
+                    break;
+                }
+
+                List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(entries.size());
+                List<Long> sentIds = new ArrayList<>(entries.size());
+                for (DlqEntry entry : entries) {
+                    OrderEventDto event = readEvent(entry);
+                    if (event == null) {
+                        job.skipped.incrementAndGet();
+                        continue;
+                    }
+                    // Pace sends evenly instead of in bursts
+                    long wait = nextSendAt - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    nextSendAt = Math.max(nextSendAt, System.nanoTime() - sendIntervalNanos) + sendIntervalNanos;
+                    sends.add(kafkaTemplate.send(Constants.ORDER_EVENTS_TOPIC, entry.originalKey(), event));
+                    sentIds.add(entry.id());
+                }
+                afterId = entries.get(entries.size() - 1).id();
+
+                if (!sentIds.isEmpty()) {
+                    CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                    dlqJdbcRepository.markReplayed(sentIds, Instant.now());
+                    job.replayed.addAndGet(sentIds.size());
+                    replayedCounter.increment(sentIds.size());
+                }
+            }
+            job.state = "COMPLETED";
+            log.info("DLQ replay completed: id={}, replayed={}, skipped={}", job.id, job.replayed.get(), job.skipped.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Interrupted");
+        } catch (Exception e) {
+            log.error("DLQ replay failed: id={}, replayed={}, error={}", job.id, job.replayed.get(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    private OrderEventDto readEvent(DlqEntry entry) {
+        try {
+            OrderEventDto event = objectMapper.readValue(entry.originalMessage(), OrderEventDto.class);
+            return event != null && event.getOrderId() != null && event.getEventType() != null ? event : null;
+        } catch (Exception e) {
+            // Undeserializable records are stored with their raw bytes, they cannot be replayed
+            log.debug("Skipping DLQ message that is not an order event: id={}, error={}", entry.id(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class ReplayJob {
+        private final long id;
+        private final DlqFilter filter;
+        private final Integer limit;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong replayed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile String state = "QUEUED";
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private ReplayJob(long id, DlqFilter filter, Integer limit) {
+            this.id = id;
+            this.filter = filter;
+            this.limit = limit;
+        }
+
+        private void fail(String error) {
+            this.error = error;
+            this.state = "FAILED";
+        }
+
+        private DlqReplayStatus status() {
+            return new DlqReplayStatus(id, state, filter, limit, replayed.get(), skipped.get(), error, createdAt, finishedAt);
+        }
+    }
+}
@@ -2,15 +2,18 @@ package com.example.etl.service;
 
 import com.example.common.constant.Constants;
 import com.example.common.dto.DlqMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -20,33 +23,44 @@ public class DlqService {
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
 
+    @Value("${etl.kafka.retry.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    /**
+     * Returns once the broker has acknowledged the DLQ record, so the failed record can be committed.
+     * Throws if it was not, leaving the failed record to be redelivered.
+     */
     public void sendToDlq(String originalTopic, String originalKey, Object originalMessage, Exception error, int retryCount) {
+        DlqMessage dlqMessage;
         try {
-            String originalMessageJson = objectMapper.writeValueAsString(originalMessage);
-            String stackTrace = getStackTrace(error);
-
-            DlqMessage dlqMessage = new DlqMessage(
+            dlqMessage = new DlqMessage(
                 originalTopic,
                 originalKey,
-                originalMessageJson,
+                objectMapper.writeValueAsString(originalMessage),
                 error.getMessage(),
-                stackTrace,
+                getStackTrace(error),
                 retryCount,
                 Instant.now()
             );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize message for DLQ: originalKey=" + originalKey, e);
+        }
 
-            kafkaTemplate.send(Constants.ORDER_EVENTS_DLQ_TOPIC, originalKey, dlqMessage);
-            
-            log.error("Message sent to DLQ: topic={}, key={}, retryCount={}, error={}", 
-                originalTopic, originalKey, retryCount, error.getMessage());
-
+        try {
+            kafkaTemplate.send(Constants.ORDER_EVENTS_DLQ_TOPIC, originalKey, dlqMessage).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending message to DLQ", e);
         } catch (Exception e) {
-            log.error("Failed to send message to DLQ: originalTopic={}, originalKey={}, error={}", 
-                originalTopic, originalKey, e.getMessage(), e);
+            throw new IllegalStateException("Failed to send message to DLQ: originalTopic=" + originalTopic
+                + ", originalKey=" + originalKey, e);
         }
+
+        log.error("Message sent to DLQ: topic={}, key={}, retryCount={}, error={}",
+            originalTopic, originalKey, retryCount, error.getMessage());
     }
 
-    private String getStackTrace(Exception e) {
+    static String getStackTrace(Throwable e) {
         StringWriter sw = new StringWriter();
         PrintWriter pw = new PrintWriter(sw);
         e.printStackTrace(pw);
@@ -0,0 +1,85 @@
+package com.example.etl.service;
+
+import com.example.common.dto.DlqMessage;
+import com.example.common.exception.InvalidRequestException;
+import com.example.etl.model.dto.DlqEntry;
+import com.example.etl.model.dto.DlqFilter;
+import com.example.etl.model.dto.DlqGroup;
+import com.example.etl.model.dto.DlqPage;
+import com.example.etl.model.dto.DlqStackTrace;
+import com.example.etl.repository.DlqJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps DLQ messages for analysis and replay. The stack trace of a message is stored once per
+ * {@link StackTraceFingerprint}; the message row only references it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DlqStore {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final DlqJdbcRepository dlqJdbcRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional
+    public void store(DlqMessage message) {
+        String fingerprint = StackTraceFingerprint.of(message.getStackTrace());
+        String errorClass = StackTraceFingerprint.errorClass(message.getStackTrace());
+        Instant failedAt = message.getFailedAt() != null ? message.getFailedAt() : Instant.now();
+
+        dlqJdbcRepository.upsertStackTrace(fingerprint, errorClass,
+                message.getStackTrace() != null ? message.getStackTrace() : "", failedAt);
+        dlqJdbcRepository.insertMessage(
+                message.getOriginalTopic(),
+                truncate(message.getOriginalKey(), MAX_KEY_LENGTH),
+                message.getOriginalMessage() != null ? message.getOriginalMessage() : "",
+                errorClass,
+                truncate(message.getErrorMessage(), MAX_ERROR_MESSAGE_LENGTH),
+                fingerprint,
+                message.getRetryCount(),
+                failedAt);
+        meterRegistry.counter("etl.dlq.stored", "error_class", errorClass).increment();
+
+        log.debug("DLQ message stored: originalKey={}, errorClass={}, fingerprint={}",
+                message.getOriginalKey(), errorClass, fingerprint);
+    }
+
+    public DlqPage find(DlqFilter filter, long afterId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // One extra row tells whether there is a next page
+        List<DlqEntry> entries = dlqJdbcRepository.findAfter(filter, afterId, size + 1);
+        boolean hasNext = entries.size() > size;
+        List<DlqEntry> page = hasNext ? entries.subList(0, size) : entries;
+        return new DlqPage(page, hasNext ? page.get(page.size() - 1).id() : null);
+    }
+
+    public List<DlqGroup> groups(DlqFilter filter, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return dlqJdbcRepository.groupByErrorClassAndKey(filter, limit);
+    }
+
+    public Optional<DlqStackTrace> stackTrace(String fingerprint) {
+        return dlqJdbcRepository.findStackTrace(fingerprint);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.etl.service;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import com.example.etl.repository.EventJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores order events a polled batch at a time. The batch is written in chunks sized by
+ * {@link AdaptiveBatchSizer}, each chunk one JDBC batch in one transaction, and acknowledged as a whole.
+ * <p>
+ * A chunk the database rejects is split in halves until the offending record is isolated and handed
+ * to {@link EventRetryRouter}; the rest of the chunk is still written. Connection and other transient failures fail
+ * the batch from the first unwritten record, so the container commits what was written and redelivers
+ * the rest with backoff.
+ * <p>
+ * With {@code etl.consumer.parallel.lanes} above 1 a batch is spread over that many lanes by order id
+ * and the lanes are written concurrently. Events of one order share a lane and keep their order; when
+ * lanes fail, the batch fails at the earliest failed record, so only records before it are committed.
+ * Lanes run on a pool of {@code lanes × etl.consumer.concurrency} threads kept for the life of the
+ * consumer; in virtual-thread mode on as many virtual threads at most.
+ * <p>
+ * The offsets after each stored chunk go to {@code consumer_offsets} in the chunk's transaction (see
+ * {@link SinkOffsets}), so Kafka offsets only need committing every {@code etl.consumer.batch.commit-interval}.
+ * <p>
+ * Write latency and database failures feed {@link SinkBackpressure}; while it throttles, chunks are
+ * kept at the minimum size and written in a single lane.
+ */
+@Service
+@ConditionalOnProperty(name = "etl.consumer.batch.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class EventBatchConsumer implements ConsumerSeekAware, DisposableBean {
+
+    private final EventJdbcRepository eventJdbcRepository;
+    private final EventRetryRouter retryRouter;
+    private final SinkOffsets sinkOffsets;
+    private final SinkBackpressure backpressure;
+    private final TransactionTemplate transactionTemplate;
+    private final AdaptiveBatchSizer batchSizer;
+    private final int lanes;
+    private static final long LANE_TERMINATION_TIMEOUT_MS = 10_000;
+
+    private final AsyncTaskExecutor laneExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Timer saveTimer;
+    private final Timer pipelineLatency;
+
+    public EventBatchConsumer(EventJdbcRepository eventJdbcRepository,
+                              EventRetryRouter retryRouter,
+                              SinkOffsets sinkOffsets,
+                              SinkBackpressure backpressure,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${etl.consumer.batch.min-size:50}") int minSize,
+                              @Value("${etl.consumer.batch.max-size:1000}") int maxSize,
+                              @Value("${etl.consumer.batch.target-latency:100ms}") Duration targetLatency,
+                              @Value("${etl.consumer.parallel.lanes:1}") int lanes,
+                              @Value("${etl.consumer.concurrency:1}") int concurrency,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.eventJdbcRepository = eventJdbcRepository;
+        this.retryRouter = retryRouter;
+        this.sinkOffsets = sinkOffsets;
+        this.backpressure = backpressure;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSizer = new AdaptiveBatchSizer(minSize, maxSize, targetLatency);
+        this.lanes = Math.max(1, lanes);
+        // Every consumer thread may have all of its lanes in flight at once
+        this.laneExecutor = laneExecutor(this.lanes * Math.max(1, concurrency), virtualThreads);
+        this.meterRegistry = meterRegistry;
+        this.saveTimer = meterRegistry.timer("etl.events.save");
+        this.pipelineLatency = meterRegistry.timer("etl.pipeline.latency");
+        meterRegistry.gauge("etl.events.batch.size", batchSizer, AdaptiveBatchSizer::currentSize);
+    }
+
+    private static AsyncTaskExecutor laneExecutor(int threads, boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("etl-lane-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            executor.setTaskTerminationTimeout(LANE_TERMINATION_TIMEOUT_MS);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("etl-lane-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(LANE_TERMINATION_TIMEOUT_MS);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Listener containers stop before this, so lanes still running get to finish their chunk.
+     */
+    @Override
+    public void destroy() {
+        if (laneExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (laneExecutor instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        sinkOffsets.onPartitionsAssigned(assignments, callback);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        sinkOffsets.onPartitionsRevoked(partitions);
+    }
+
+    @KafkaListener(id = SinkBackpressure.SINK_LISTENER_ID, idIsGroup = false, topics = Constants.ORDER_EVENTS_TOPIC,
+            containerFactory = "batchListenerContainerFactory")
+    public void handleOrderEvents(List<ConsumerRecord<String, OrderEventDto>> records) {
+        Timer.Sample batch = Timer.start(meterRegistry);
+        log.debug("Processing batch of {} order events", records.size());
+
+        List<ConsumerRecord<String, OrderEventDto>> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, OrderEventDto> record : records) {
+            if (record.value() == null) {
+                retryRouter.deadLetterUndeserializable(record);
+            } else if (!sinkOffsets.isDuplicate(record)) {
+                events.add(record);
+            }
+        }
+
+        if (lanes == 1 || events.size() < 2 || backpressure.isThrottled()) {
+            writeInChunks(events, true);
+        } else {
+            writeInLanes(events);
+        }
+
+        batch.stop(meterRegistry.timer("etl.events.batch"));
+    }
+
+    private void writeInLanes(List<ConsumerRecord<String, OrderEventDto>> events) {
+        List<List<ConsumerRecord<String, OrderEventDto>>> byLane = assignLanes(events, lanes);
+        List<CompletableFuture<Void>> writes = new ArrayList<>(byLane.size());
+        for (List<ConsumerRecord<String, OrderEventDto>> lane : byLane) {
+            if (!lane.isEmpty()) {
+                writes.add(CompletableFuture.runAsync(() -> writeInChunks(lane, false), laneExecutor));
+            }
+        }
+
+        // Wait for every lane before failing, so everything ahead of the earliest failure is stored
+        BatchListenerFailedException earliest = null;
+        int earliestIndex = Integer.MAX_VALUE;
+        RuntimeException other = null;
+        for (CompletableFuture<Void> write : writes) {
+            try {
+                write.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof BatchListenerFailedException failed) {
+                    int index = events.indexOf(failed.getRecord());
+                    if (index < earliestIndex) {
+                        earliest = failed;
+                        earliestIndex = index;
+                    }
+                } else if (other == null) {
+                    other = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (other != null) {
+            throw other;
+        }
+        if (earliest != null) {
+            throw earliest;
+        }
+        // Lanes finish out of offset order, so offsets are stored once all of them are done. Rows of a batch
+        // redelivered before that are caught by the unique source key
+        transactionTemplate.executeWithoutResult(status -> sinkOffsets.store(events));
+    }
+
+    /**
+     * Splits records into lanes by order id, keeping their relative order within each lane.
+     */
+    static List<List<ConsumerRecord<String, OrderEventDto>>> assignLanes(List<ConsumerRecord<String, OrderEventDto>> records, int lanes) {
+        List<List<ConsumerRecord<String, OrderEventDto>>> byLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (ConsumerRecord<String, OrderEventDto> record : records) {
+            byLane.get(Math.floorMod(Long.hashCode(record.value().getOrderId()), lanes)).add(record);
+        }
+        return byLane;
+    }
+
+    private void writeInChunks(List<ConsumerRecord<String, OrderEventDto>> events, boolean storeOffsets) {
+        int chunkSize;
+        for (int from = 0; from < events.size(); from += chunkSize) {
+            chunkSize = backpressure.isThrottled() ? batchSizer.minSize() : batchSizer.currentSize();
+            write(events.subList(from, Math.min(from + chunkSize, events.size())), storeOffsets);
+        }
+    }
+
+    /**
+     * Stores a chunk, with the offsets after it when {@code storeOffsets} is set. Chunks are written in
+     * offset order, so everything before the stored offsets is stored or handed to the retry topics.
+     */
+    private void write(List<ConsumerRecord<String, OrderEventDto>> chunk, boolean storeOffsets) {
+        List<EventJdbcRepository.EventRow> rows = chunk.stream().map(EventOrigin::row).toList();
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                eventJdbcRepository.insertAll(rows);
+                if (storeOffsets) {
+                    sinkOffsets.store(chunk);
+                }
+            });
+
+        } catch (TransientDataAccessException | DataAccessResourceFailureException | CannotCreateTransactionException e) {
+            backpressure.recordFailure();
+            throw new BatchListenerFailedException("Failed to store order events, will redeliver", e, chunk.get(0));
+
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1) {
+                ConsumerRecord<String, OrderEventDto> poison = chunk.get(0);
+                log.error("Order event rejected by the database: orderId={}, partition={}, offset={}, error={}",
+                        poison.value().getOrderId(), poison.partition(), poison.offset(), e.getMessage());
+                try {
+                    retryRouter.retryOrDeadLetter(poison, e);
+                } catch (IllegalStateException routingFailure) {
+                    throw new BatchListenerFailedException("Failed to schedule order event retry", routingFailure, poison);
+                }
+                if (storeOffsets) {
+                    // Handed over like a stored record, so a restart does not route it again
+                    transactionTemplate.executeWithoutResult(status -> sinkOffsets.store(chunk));
+                }
+                return;
+            }
+            log.warn("Chunk of {} order events rejected, splitting to isolate the failing record: {}", chunk.size(), e.getMessage());
+            int middle = chunk.size() / 2;
+            write(chunk.subList(0, middle), storeOffsets);
+            write(chunk.subList(middle, chunk.size()), storeOffsets);
+            return;
+        }
+
+        long latency = System.nanoTime() - started;
+        batchSizer.record(chunk.size(), latency);
+        backpressure.recordWrite(latency);
+        saveTimer.record(latency, TimeUnit.NANOSECONDS);
+
+        Instant committedAt = Instant.now();
+        for (EventJdbcRepository.EventRow row : rows) {
+            pipelineLatency.record(Duration.between(row.createdAt(), committedAt));
+        }
+    }
+}
@@ -2,89 +2,138 @@ package com.example.etl.service;
 
 import com.example.common.constant.Constants;
 import com.example.common.dto.OrderEventDto;
-import com.example.etl.model.entity.Event;
-import com.example.etl.repository.EventRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.etl.repository.EventJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores order events. Besides per-record processing ({@code etl.events.processing}), insert time
+ * ({@code etl.events.save}), retries and DLQ sends, it records {@code etl.pipeline.latency}: the time
+ * from the order change in the handler (the event timestamp) until the event row is committed here.
+ * Record-at-a-time mode, used when {@code etl.consumer.batch.enabled=false}; see {@link EventBatchConsumer}.
+ * <p>
+ * A record that fails is handed to {@link EventRetryRouter} and acknowledged, so it is retried from
+ * a retry topic while the partition moves on. When the database rather than the record is the problem
+ * the record is redelivered with backoff instead, and {@link SinkBackpressure} pauses the sink until the
+ * database recovers, so an outage does not use up retries. Stored events and their offsets are committed
+ * together, see {@link SinkOffsets}.
+ */
 @Service
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "etl.consumer.batch.enabled", havingValue = "false")
 @Slf4j
-public class EventConsumer {
-
-    private final EventRepository eventRepository;
-    private final DlqService dlqService;
-    
-    private static final int MAX_RETRY_COUNT = 3;
-
-    @KafkaListener(topics = Constants.ORDER_EVENTS_TOPIC)
-    @Transactional
-    public void handleOrderEvent(
-            @Payload OrderEventDto orderEventDto,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(value = "retry-count", required = false) Integer retryCount,
-            Acknowledgment acknowledgment) {
-
-        if (retryCount == null) {
-            retryCount = 0;
+public class EventConsumer implements ConsumerSeekAware {
+
+    private final EventJdbcRepository eventJdbcRepository;
+    private final EventRetryRouter retryRouter;
+    private final SinkOffsets sinkOffsets;
+    private final SinkBackpressure backpressure;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public EventConsumer(EventJdbcRepository eventJdbcRepository,
+                         EventRetryRouter retryRouter,
+                         SinkOffsets sinkOffsets,
+                         SinkBackpressure backpressure,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.eventJdbcRepository = eventJdbcRepository;
+        this.retryRouter = retryRouter;
+        this.sinkOffsets = sinkOffsets;
+        this.backpressure = backpressure;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        sinkOffsets.onPartitionsAssigned(assignments, callback);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        sinkOffsets.onPartitionsRevoked(partitions);
+    }
+
+    @KafkaListener(id = SinkBackpressure.SINK_LISTENER_ID, idIsGroup = false, topics = Constants.ORDER_EVENTS_TOPIC)
+    public void handleOrderEvent(ConsumerRecord<String, OrderEventDto> record, Acknowledgment acknowledgment) {
+        OrderEventDto orderEventDto = record.value();
+        if (sinkOffsets.isDuplicate(record)) {
+            log.debug("Skipping already stored order event: partition={}, offset={}", record.partition(), record.offset());
+            acknowledgment.acknowledge();
+            return;
         }
 
+        Timer.Sample processing = Timer.start(meterRegistry);
         try {
-            log.info("Processing order event: orderId={}, eventType={}, topic={}, partition={}, offset={}, retryCount={}",
-                    orderEventDto.getOrderId(), orderEventDto.getEventType(), topic, partition, offset, retryCount);
+            log.info("Processing order event: orderId={}, eventType={}, topic={}, partition={}, offset={}",
+                    orderEventDto.getOrderId(), orderEventDto.getEventType(), record.topic(), record.partition(), record.offset());
 
-            // Simulate potential processing failure for demonstration
-            processOrderEvent(orderEventDto);
+            long started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> processOrderEvent(record));
+            backpressure.recordWrite(System.nanoTime() - started);
 
-            log.info("Event processed successfully: orderId={}, eventType={}, retryCount={}",
-                    orderEventDto.getOrderId(), orderEventDto.getEventType(), retryCount);
+            log.info("Event processed successfully: orderId={}, eventType={}",
+                    orderEventDto.getOrderId(), orderEventDto.getEventType());
+            processing.stop(meterRegistry.timer("etl.events.processing", "outcome", "success"));
 
-            // Acknowledge the message only on success
-            acknowledgment.acknowledge();
+        } catch (TransientDataAccessException | DataAccessResourceFailureException | CannotCreateTransactionException e) {
+            processing.stop(meterRegistry.timer("etl.events.processing", "outcome", "error"));
+            backpressure.recordFailure();
+            log.warn("Database unavailable, order event will be redelivered: orderId={}, partition={}, offset={}, error={}",
+                    orderEventDto.getOrderId(), record.partition(), record.offset(), e.getMessage());
+            throw e;
 
         } catch (Exception e) {
-            log.error("Failed to process order event: orderId={}, eventType={}, retryCount={}, error={}",
-                    orderEventDto.getOrderId(), orderEventDto.getEventType(), retryCount, e.getMessage(), e);
-
-            if (retryCount >= MAX_RETRY_COUNT) {
-                log.error("Max retry count exceeded. Sending to DLQ: orderId={}, eventType={}, retryCount={}",
-                        orderEventDto.getOrderId(), orderEventDto.getEventType(), retryCount);
-                
-                // Send to DLQ after max retries
-                dlqService.sendToDlq(topic, key, orderEventDto, e, retryCount);
-                
-                // Acknowledge the message to prevent infinite retries
-                acknowledgment.acknowledge();
-            } else {
-                // Do not acknowledge - let Kafka retry
-                log.warn("Will retry processing: orderId={}, eventType={}, retryCount={}",
-                        orderEventDto.getOrderId(), orderEventDto.getEventType(), retryCount);
-                throw e;
-            }
+            processing.stop(meterRegistry.timer("etl.events.processing", "outcome", "error"));
+            log.error("Failed to process order event: orderId={}, eventType={}, error={}",
+                    orderEventDto.getOrderId(), orderEventDto.getEventType(), e.getMessage(), e);
+
+            retryRouter.retryOrDeadLetter(record, e);
+            // Handed over like a stored record, so a restart does not route it again
+            transactionTemplate.executeWithoutResult(status -> sinkOffsets.store(List.of(record)));
         }
+
+        // Acknowledge once the event is stored or handed to a retry topic
+        acknowledgment.acknowledge();
     }
 
-    private void processOrderEvent(OrderEventDto orderEventDto) {
-        // Create and save event entity
-        Event event = new Event();
-        event.setOrderId(orderEventDto.getOrderId());
-        event.setEventType(orderEventDto.getEventType());
-        event.setEventData(orderEventDto.getEventData());
-        event.setCreatedAt(orderEventDto.getTimestamp());
+    private void processOrderEvent(ConsumerRecord<String, OrderEventDto> record) {
+        EventJdbcRepository.EventRow row = EventOrigin.row(record);
+        meterRegistry.timer("etl.events.save").record(() -> eventJdbcRepository.insertAll(List.of(row)));
+        sinkOffsets.store(List.of(record));
+        recordPipelineLatencyAfterCommit(row.createdAt());
 
-        Event savedEvent = eventRepository.save(event);
+        log.debug("Event saved to database: orderId={}, eventType={}, sourcePartition={}, sourceOffset={}",
+                row.event().getOrderId(), row.event().getEventType(), row.sourcePartition(), row.sourceOffset());
+    }
 
-        log.debug("Event saved to database: id={}, orderId={}, eventType={}",
-                savedEvent.getId(), savedEvent.getOrderId(), savedEvent.getEventType());
+    private void recordPipelineLatencyAfterCommit(Instant eventTimestamp) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                meterRegistry.timer("etl.pipeline.latency").record(Duration.between(eventTimestamp, Instant.now()));
+            }
+        });
     }
 }
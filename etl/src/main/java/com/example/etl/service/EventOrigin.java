@@ -0,0 +1,51 @@
+package com.example.etl.service;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.etl.repository.EventJdbcRepository.EventRow;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Where an event was first read from {@code order-events}: the partition and offset that identify
+ * it in the events table. Retry records carry the origin of the record they retry in headers.
+ */
+public final class EventOrigin {
+
+    public static final String ORIGIN_PARTITION_HEADER = "origin-partition";
+    public static final String ORIGIN_OFFSET_HEADER = "origin-offset";
+
+    private EventOrigin() {
+    }
+
+    public static EventRow row(ConsumerRecord<String, OrderEventDto> record) {
+        OrderEventDto event = record.value();
+        Instant createdAt = event.getTimestamp() != null ? event.getTimestamp() : Instant.ofEpochMilli(record.timestamp());
+        Header partition = record.headers().lastHeader(ORIGIN_PARTITION_HEADER);
+        Header offset = record.headers().lastHeader(ORIGIN_OFFSET_HEADER);
+        if (partition == null || offset == null) {
+            return new EventRow(event, createdAt, record.partition(), record.offset());
+        }
+        return new EventRow(event, createdAt, Integer.parseInt(text(partition)), Long.parseLong(text(offset)));
+    }
+
+    /**
+     * Adds the origin of {@code source} to a record republished from it.
+     */
+    public static void copy(ConsumerRecord<String, OrderEventDto> source, ProducerRecord<String, Object> target) {
+        EventRow origin = row(source);
+        target.headers().add(ORIGIN_PARTITION_HEADER, bytes(origin.sourcePartition()));
+        target.headers().add(ORIGIN_OFFSET_HEADER, bytes(origin.sourceOffset()));
+    }
+
+    private static String text(Header header) {
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
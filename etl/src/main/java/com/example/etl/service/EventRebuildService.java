@@ -0,0 +1,307 @@
+package com.example.etl.service;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import com.example.common.exception.InvalidRequestException;
+import com.example.etl.model.dto.EventRebuildStatus;
+import com.example.etl.repository.EventJdbcRepository.EventRow;
+import com.example.etl.repository.EventRebuildRepository;
+import com.example.etl.service.archive.EventArchive;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the events table from {@code order-events} without going through the sink. All partitions
+ * are read in parallel, each by a consumer of its own with large fetches, up to the end offsets at the
+ * start of the rebuild. Rows go to a staging table without secondary indexes in multi-row inserts; the
+ * indexes are built once everything is loaded and the staging table is renamed into place.
+ * <p>
+ * Rows before the start position, and rows without a source, are carried over from the current table.
+ * The sink keeps writing to the current table meanwhile; what it wrote from the end offsets on is
+ * copied over after the swap, and anything it writes later lands in the new table. Records before the
+ * end of the newest archived partition are in the {@link EventArchive} and are not loaded again; rows
+ * of that time still in the table are carried over.
+ */
+@Service
+@Slf4j
+public class EventRebuildService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final EventRebuildRepository eventRebuildRepository;
+    private final EventArchive eventArchive;
+    private final ConsumerFactory<String, OrderEventDto> consumerFactory;
+    private final Counter rebuiltCounter;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("events-rebuild-"));
+    private final Map<Long, RebuildJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+
+    @Value("${etl.events.rebuild.parallelism:4}")
+    private int parallelism;
+
+    @Value("${etl.events.rebuild.max-poll-records:5000}")
+    private int maxPollRecords;
+
+    @Value("${etl.events.rebuild.max-partition-fetch-bytes:16777216}")
+    private int maxPartitionFetchBytes;
+
+    @Value("${etl.events.rebuild.insert-batch-size:5000}")
+    private int insertBatchSize;
+
+    public EventRebuildService(EventRebuildRepository eventRebuildRepository,
+                               EventArchive eventArchive,
+                               ConsumerFactory<String, OrderEventDto> consumerFactory,
+                               MeterRegistry meterRegistry) {
+        this.eventRebuildRepository = eventRebuildRepository;
+        this.eventArchive = eventArchive;
+        this.consumerFactory = consumerFactory;
+        this.rebuiltCounter = meterRegistry.counter("etl.events.rebuilt");
+    }
+
+    /**
+     * Queues a rebuild reading each partition from the first record at or after {@code from}, from
+     * {@code fromOffset}, or from the beginning when neither is given.
+     */
+    public EventRebuildStatus rebuild(Instant from, Long fromOffset) {
+        if (from != null && fromOffset != null) {
+            throw new InvalidRequestException("Either a start time or a start offset can be given, not both");
+        }
+        if (fromOffset != null && fromOffset < 0) {
+            throw new InvalidRequestException("Start offset must not be negative");
+        }
+        RebuildJob job = new RebuildJob(jobIds.incrementAndGet(), from, fromOffset);
+        jobs.put(job.id, job);
+        rebuildExecutor.execute(() -> run(job));
+        log.info("Events rebuild queued: id={}, from={}, fromOffset={}", job.id, from, fromOffset);
+        return job.status();
+    }
+
+    public Optional<EventRebuildStatus> status(long id) {
+        return Optional.ofNullable(jobs.get(id)).map(RebuildJob::status);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void run(RebuildJob job) {
+        ExecutorService loaders = null;
+        try {
+            Map<TopicPartition, Long> startOffsets = new HashMap<>();
+            Map<TopicPartition, Long> endOffsets = new HashMap<>();
+            findOffsets(job, startOffsets, endOffsets);
+            Instant archivedBefore = eventArchive.archivedBefore();
+
+            job.state = "LOADING";
+            eventRebuildRepository.createStaging();
+            List<EventRebuildRepository.Index> indexes = eventRebuildRepository.findSecondaryIndexes();
+            eventRebuildRepository.dropIndexes(indexes);
+            job.carriedOver.addAndGet(eventRebuildRepository.copyBefore(byPartition(startOffsets), archivedBefore));
+
+            loaders = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, startOffsets.size())),
+                    new CustomizableThreadFactory("events-rebuild-load-"));
+            List<Future<?>> loads = new ArrayList<>();
+            for (TopicPartition partition : startOffsets.keySet()) {
+                long start = startOffsets.get(partition);
+                long end = endOffsets.get(partition);
+                loads.add(loaders.submit(() -> load(job, partition, start, end, archivedBefore)));
+            }
+            for (Future<?> load : loads) {
+                load.get();
+            }
+
+            job.state = "INDEXING";
+            log.info("Events rebuild loaded: id={}, loaded={}, building indexes {}", job.id, job.loaded.get(),
+                    indexes.stream().map(EventRebuildRepository.Index::name).toList());
+            eventRebuildRepository.addIndexes(indexes);
+
+            job.state = "SWAPPING";
+            eventRebuildRepository.swap();
+            job.carriedOver.addAndGet(eventRebuildRepository.copyAfter(byPartition(endOffsets)));
+
+            job.state = "COMPLETED";
+            log.info("Events rebuild completed: id={}, loaded={}, carriedOver={}, archived={}, skipped={}, rejected={}",
+                    job.id, job.loaded.get(), job.carriedOver.get(), job.archived.get(), job.skipped.get(), job.rejected.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Interrupted");
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Events rebuild failed: id={}, state={}, error={}", job.id, job.state, cause.getMessage(), cause);
+            job.fail(cause.getMessage());
+        } finally {
+            if (loaders != null) {
+                loaders.shutdownNow();
+            }
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    private void findOffsets(RebuildJob job, Map<TopicPartition, Long> startOffsets, Map<TopicPartition, Long> endOffsets) {
+        try (Consumer<String, OrderEventDto> consumer = consumerFactory.createConsumer("etl-rebuild", "etl-rebuild-", "-offsets")) {
+            List<TopicPartition> partitions = consumer.partitionsFor(Constants.ORDER_EVENTS_TOPIC).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+            endOffsets.putAll(consumer.endOffsets(partitions));
+
+            Map<TopicPartition, OffsetAndTimestamp> byTime = new HashMap<>();
+            if (job.from != null) {
+                Map<TopicPartition, Long> timestamps = new HashMap<>();
+                partitions.forEach(partition -> timestamps.put(partition, job.from.toEpochMilli()));
+                byTime.putAll(consumer.offsetsForTimes(timestamps));
+            }
+            for (TopicPartition partition : partitions) {
+                long start;
+                if (job.from != null) {
+                    // No record at or after the time: nothing to load from this partition
+                    OffsetAndTimestamp found = byTime.get(partition);
+                    start = found != null ? found.offset() : endOffsets.get(partition);
+                } else if (job.fromOffset != null) {
+                    start = Math.min(Math.max(job.fromOffset, beginning.get(partition)), endOffsets.get(partition));
+                } else {
+                    start = beginning.get(partition);
+                }
+                startOffsets.put(partition, start);
+            }
+        }
+        log.info("Events rebuild offsets: id={}, start={}, end={}", job.id, startOffsets, endOffsets);
+    }
+
+    private void load(RebuildJob job, TopicPartition partition, long start, long end, Instant archivedBefore) {
+        if (start >= end) {
+            return;
+        }
+        Properties fetch = new Properties();
+        fetch.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        fetch.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, maxPartitionFetchBytes);
+        // Fetch in large chunks instead of returning as soon as anything is available
+        fetch.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1024 * 1024);
+        fetch.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 500);
+
+        try (Consumer<String, OrderEventDto> consumer = consumerFactory.createConsumer("etl-rebuild", "etl-rebuild-",
+                "-" + partition.partition(), fetch)) {
+            consumer.assign(List.of(partition));
+            consumer.seek(partition, start);
+
+            List<EventRow> rows = new ArrayList<>(insertBatchSize);
+            while (consumer.position(partition) < end) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Rebuild of partition " + partition + " interrupted");
+                }
+                for (ConsumerRecord<String, OrderEventDto> record : consumer.poll(POLL_TIMEOUT).records(partition)) {
+                    if (record.offset() >= end) {
+                        break;
+                    }
+                    if (record.value() == null || record.value().getOrderId() == null || record.value().getEventType() == null) {
+                        job.skipped.incrementAndGet();
+                        continue;
+                    }
+                    EventRow row = EventOrigin.row(record);
+                    if (archivedBefore != null && row.createdAt().isBefore(archivedBefore)) {
+                        job.archived.incrementAndGet();
+                        continue;
+                    }
+                    rows.add(row);
+                    if (rows.size() >= insertBatchSize) {
+                        insert(job, rows);
+                        rows.clear();
+                    }
+                }
+            }
+            insert(job, rows);
+        }
+        log.info("Events rebuild loaded partition {}: offsets {} to {}", partition, start, end);
+    }
+
+    /**
+     * Inserts rows, splitting a rejected batch until the rejected rows are found and skipped. The
+     * live sink has sent those records to the retry topics and the DLQ already.
+     */
+    private void insert(RebuildJob job, List<EventRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            eventRebuildRepository.insertAll(rows);
+        } catch (DataAccessException e) {
+            if (rows.size() == 1) {
+                log.warn("Event rejected during rebuild: partition={}, offset={}, error={}",
+                        rows.get(0).sourcePartition(), rows.get(0).sourceOffset(), e.getMessage());
+                job.rejected.incrementAndGet();
+                return;
+            }
+            int middle = rows.size() / 2;
+            insert(job, rows.subList(0, middle));
+            insert(job, rows.subList(middle, rows.size()));
+            return;
+        }
+        job.loaded.addAndGet(rows.size());
+        rebuiltCounter.increment(rows.size());
+    }
+
+    private static Map<Integer, Long> byPartition(Map<TopicPartition, Long> offsets) {
+        Map<Integer, Long> byPartition = new HashMap<>();
+        offsets.forEach((partition, offset) -> byPartition.put(partition.partition(), offset));
+        return byPartition;
+    }
+
+    private static final class RebuildJob {
+        private final long id;
+        private final Instant from;
+        private final Long fromOffset;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong loaded = new AtomicLong();
+        private final AtomicLong carriedOver = new AtomicLong();
+        private final AtomicLong archived = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile String state = "QUEUED";
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private RebuildJob(long id, Instant from, Long fromOffset) {
+            this.id = id;
+            this.from = from;
+            this.fromOffset = fromOffset;
+        }
+
+        private void fail(String error) {
+            this.error = error;
+            this.state = "FAILED";
+        }
+
+        private EventRebuildStatus status() {
+            return new EventRebuildStatus(id, state, from, fromOffset, loaded.get(), carriedOver.get(), archived.get(),
+                    skipped.get(), rejected.get(), error, createdAt, finishedAt);
+        }
+    }
+}
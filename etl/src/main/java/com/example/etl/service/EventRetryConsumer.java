@@ -0,0 +1,83 @@
+package com.example.etl.service;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.etl.repository.EventJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries order events from one retry tier topic. Each tier runs in its own listener container
+ * (see {@code RetryTopicConfig}); a record that is not due yet pauses only its tier, via
+ * {@link Acknowledgment#nack(Duration)}, and since all records in a tier wait equally long the
+ * ones behind it are not due either. A failed retry moves on to the next tier, unless the database
+ * is unavailable: then the record is redelivered without using up an attempt.
+ */
+@Service
+@Slf4j
+public class EventRetryConsumer {
+
+    private final EventJdbcRepository eventJdbcRepository;
+    private final EventRetryRouter retryRouter;
+    private final SinkBackpressure backpressure;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public EventRetryConsumer(EventJdbcRepository eventJdbcRepository,
+                              EventRetryRouter retryRouter,
+                              SinkBackpressure backpressure,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.eventJdbcRepository = eventJdbcRepository;
+        this.retryRouter = retryRouter;
+        this.backpressure = backpressure;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void handleRetry(ConsumerRecord<String, OrderEventDto> record, Acknowledgment acknowledgment) {
+        long wait = EventRetryRouter.dueAt(record) - System.currentTimeMillis();
+        if (wait > 0) {
+            acknowledgment.nack(Duration.ofMillis(wait));
+            return;
+        }
+
+        OrderEventDto event = record.value();
+        Timer.Sample processing = Timer.start(meterRegistry);
+        try {
+            long started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> eventJdbcRepository.insertAll(List.of(EventOrigin.row(record))));
+            long latency = System.nanoTime() - started;
+            meterRegistry.timer("etl.events.save").record(latency, TimeUnit.NANOSECONDS);
+            backpressure.recordWrite(latency);
+            processing.stop(meterRegistry.timer("etl.events.processing", "outcome", "success"));
+            if (event.getTimestamp() != null) {
+                meterRegistry.timer("etl.pipeline.latency").record(Duration.between(event.getTimestamp(), Instant.now()));
+            }
+            log.info("Retried order event stored: orderId={}, eventType={}, retryCount={}",
+                    event.getOrderId(), event.getEventType(), EventRetryRouter.retryCount(record));
+        } catch (TransientDataAccessException | DataAccessResourceFailureException | CannotCreateTransactionException e) {
+            processing.stop(meterRegistry.timer("etl.events.processing", "outcome", "error"));
+            backpressure.recordFailure();
+            throw e;
+
+        } catch (Exception e) {
+            processing.stop(meterRegistry.timer("etl.events.processing", "outcome", "error"));
+            retryRouter.retryOrDeadLetter(record, e);
+        }
+        acknowledgment.acknowledge();
+    }
+}
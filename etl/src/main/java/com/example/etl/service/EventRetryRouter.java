@@ -0,0 +1,143 @@
+package com.example.etl.service;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves order events that failed to store off the main topic. A failed event goes to the next
+ * retry tier, {@code order-events-retry-<delay ms>}, with the {@code retry-count} header incremented
+ * and {@code retry-due-at} set; tier delays grow exponentially. After the last tier it goes to
+ * {@code order-events-dlq}. Undeserializable records go to the DLQ directly, retrying cannot fix them.
+ * Every hop waits for the broker's acknowledgement and throws without one, so the failed record is
+ * redelivered instead of committed.
+ */
+@Service
+@Slf4j
+public class EventRetryRouter {
+
+    public static final String RETRY_COUNT_HEADER = "retry-count";
+    public static final String RETRY_DUE_AT_HEADER = "retry-due-at";
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(EventRetryRouter.class);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final DlqService dlqService;
+    private final MeterRegistry meterRegistry;
+    private final List<RetryTier> tiers;
+
+    @Value("${etl.kafka.retry.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    public EventRetryRouter(KafkaTemplate<String, Object> kafkaTemplate,
+                            DlqService dlqService,
+                            MeterRegistry meterRegistry,
+                            @Value("${etl.kafka.retry.max-attempts:3}") int maxAttempts,
+                            @Value("${etl.kafka.retry.initial-delay:1s}") Duration initialDelay,
+                            @Value("${etl.kafka.retry.multiplier:5.0}") double multiplier) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.dlqService = dlqService;
+        this.meterRegistry = meterRegistry;
+        this.tiers = tiers(maxAttempts, initialDelay, multiplier);
+    }
+
+    public record RetryTier(String topic, Duration delay) {
+    }
+
+    static List<RetryTier> tiers(int maxAttempts, Duration initialDelay, double multiplier) {
+        List<RetryTier> tiers = new ArrayList<>(maxAttempts);
+        double delayMs = initialDelay.toMillis();
+        for (int i = 0; i < maxAttempts; i++) {
+            Duration delay = Duration.ofMillis(Math.round(delayMs));
+            tiers.add(new RetryTier(Constants.ORDER_EVENTS_RETRY_TOPIC_PREFIX + delay.toMillis(), delay));
+            delayMs *= multiplier;
+        }
+        return List.copyOf(tiers);
+    }
+
+    public List<RetryTier> getTiers() {
+        return tiers;
+    }
+
+    /**
+     * Schedules another attempt for a record that failed to store, or dead-letters it once the
+     * retry tiers are exhausted. The retry record is acknowledged by the broker before this returns,
+     * so the failed record can be committed.
+     */
+    public void retryOrDeadLetter(ConsumerRecord<String, OrderEventDto> record, Exception error) {
+        int retryCount = retryCount(record);
+        if (retryCount >= tiers.size()) {
+            log.error("Retries exhausted, sending to DLQ: orderId={}, eventType={}, retryCount={}",
+                    record.value().getOrderId(), record.value().getEventType(), retryCount);
+            dlqService.sendToDlq(Constants.ORDER_EVENTS_TOPIC, record.key(), record.value(), error, retryCount);
+            meterRegistry.counter("etl.events.dlq").increment();
+            return;
+        }
+
+        RetryTier tier = tiers.get(retryCount);
+        ProducerRecord<String, Object> retry = new ProducerRecord<>(tier.topic(), record.key(), record.value());
+        retry.headers().add(RETRY_COUNT_HEADER, header(retryCount + 1));
+        retry.headers().add(RETRY_DUE_AT_HEADER, header(System.currentTimeMillis() + tier.delay().toMillis()));
+        EventOrigin.copy(record, retry);
+        try {
+            kafkaTemplate.send(retry).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scheduling order event retry", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to schedule order event retry on " + tier.topic(), e);
+        }
+
+        log.warn("Scheduled retry: orderId={}, eventType={}, retryCount={}, topic={}, error={}",
+                record.value().getOrderId(), record.value().getEventType(), retryCount + 1, tier.topic(), error.getMessage());
+        meterRegistry.counter("etl.events.retries").increment();
+    }
+
+    /**
+     * Dead-letters a record the {@code ErrorHandlingDeserializer} could not read, with its raw bytes.
+     * The DLQ record is acknowledged by the broker before this returns.
+     */
+    public void deadLetterUndeserializable(ConsumerRecord<?, ?> record) {
+        DeserializationException error = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        if (error == null) {
+            log.warn("Skipping order event that failed with a non-retryable error: topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset());
+            return;
+        }
+        log.error("Undeserializable order event, sending to DLQ: topic={}, partition={}, offset={}, error={}",
+                record.topic(), record.partition(), record.offset(), error.getMessage());
+        dlqService.sendToDlq(record.topic(), record.key() != null ? record.key().toString() : null, error.getData(), error, 0);
+        meterRegistry.counter("etl.events.dlq").increment();
+    }
+
+    public static int retryCount(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(RETRY_COUNT_HEADER);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(RETRY_DUE_AT_HEADER);
+        return header == null ? 0 : Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] header(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.etl.service;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.etl.repository.ConsumerOffsetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks offsets stored in {@code consumer_offsets} against the log they were stored for. An offset
+ * beyond the end of its partition was stored before the topic was recreated; seeking to it would skip
+ * the new records, and treating everything below it as already consumed would drop them. Such an
+ * offset is deleted, not just ignored: saves only ever move a stored offset forward, so a stale one
+ * would otherwise outlive every save until the new log caught up with it.
+ */
+@Component
+@Slf4j
+public class LogEndOffsets {
+
+    private final ConsumerFactory<String, OrderEventDto> consumerFactory;
+    private final ConsumerOffsetRepository consumerOffsetRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public LogEndOffsets(ConsumerFactory<String, OrderEventDto> consumerFactory,
+                         ConsumerOffsetRepository consumerOffsetRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.consumerFactory = consumerFactory;
+        this.consumerOffsetRepository = consumerOffsetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Offsets stored by {@code group} for {@code partitions} that lie within their partition's log.
+     * The others are deleted with a warning, in one transaction with {@code reset}, which clears
+     * whatever else was stored with them; their partitions are consumed as if nothing had been stored.
+     */
+    public Map<TopicPartition, Long> storedOffsets(String group, Collection<TopicPartition> partitions,
+                                                   Reset reset) {
+        Map<TopicPartition, Long> stored = consumerOffsetRepository.find(group, partitions);
+        if (stored.isEmpty()) {
+            return stored;
+        }
+        Map<TopicPartition, Long> endOffsets;
+        try (Consumer<String, OrderEventDto> consumer = consumerFactory.createConsumer()) {
+            endOffsets = consumer.endOffsets(stored.keySet());
+        }
+        Map<TopicPartition, Long> valid = withinLog(group, stored, endOffsets);
+        if (valid.size() < stored.size()) {
+            List<TopicPartition> discarded = stored.keySet().stream().filter(partition -> !valid.containsKey(partition)).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                consumerOffsetRepository.delete(group, discarded);
+                reset.partitions(discarded);
+            });
+        }
+        return valid;
+    }
+
+    /**
+     * Clears state stored together with the offsets of the given partitions.
+     */
+    @FunctionalInterface
+    public interface Reset {
+        void partitions(Collection<TopicPartition> partitions);
+    }
+
+    static Map<TopicPartition, Long> withinLog(String group, Map<TopicPartition, Long> stored,
+                                               Map<TopicPartition, Long> endOffsets) {
+        Map<TopicPartition, Long> valid = new HashMap<>(stored.size());
+        stored.forEach((partition, offset) -> {
+            Long end = endOffsets.get(partition);
+            if (end != null && offset > end) {
+                log.warn("Discarding stored offset beyond the log end, the topic was recreated: group={}, partition={}, offset={}, logEnd={}",
+                        group, partition, offset, end);
+            } else {
+                valid.put(partition, offset);
+            }
+        });
+        return valid;
+    }
+}
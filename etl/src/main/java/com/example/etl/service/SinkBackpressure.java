@@ -0,0 +1,155 @@
+package com.example.etl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Slows the sink down while the database struggles, so a slow or unavailable database shows up as
+ * consumer lag instead of retries, DLQ messages and rebalances. Sink writes report their latency and
+ * transient failures to a {@link DatabasePressure}, which is re-evaluated every
+ * {@code etl.backpressure.check-interval-ms}:
+ * <ul>
+ *     <li>Throttled, the batch sink writes minimum-size chunks in a single lane</li>
+ *     <li>Paused, every partition of the sink and the retry tier containers are paused. Paused
+ *     consumers keep polling, so they stay in the group. The database is probed with
+ *     {@code SELECT 1} until it answers quickly again</li>
+ *     <li>After a pause, partitions are resumed one per check while throttled, and all at once
+ *     when back to normal; the retry tiers resume last</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class SinkBackpressure {
+
+    /**
+     * Listener id of the {@code order-events} sink, in batch and in record mode
+     */
+    public static final String SINK_LISTENER_ID = "order-events-sink";
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final EventRetryRouter retryRouter;
+    private final JdbcTemplate probeJdbcTemplate;
+    private final DatabasePressure pressure;
+    private final boolean enabled;
+    private volatile int pausedPartitions;
+
+    public SinkBackpressure(KafkaListenerEndpointRegistry registry,
+                            EventRetryRouter retryRouter,
+                            DataSource dataSource,
+                            MeterRegistry meterRegistry,
+                            @Value("${etl.backpressure.enabled:true}") boolean enabled,
+                            @Value("${etl.backpressure.slow-latency:250ms}") Duration slowLatency,
+                            @Value("${etl.backpressure.stall-latency:2s}") Duration stallLatency,
+                            @Value("${etl.backpressure.max-error-rate:0.5}") double maxErrorRate,
+                            @Value("${etl.backpressure.recovery-probes:3}") int recoveryProbes) {
+        this.registry = registry;
+        this.retryRouter = retryRouter;
+        this.probeJdbcTemplate = new JdbcTemplate(dataSource);
+        this.probeJdbcTemplate.setQueryTimeout((int) Math.max(1, stallLatency.toSeconds()));
+        this.pressure = new DatabasePressure(slowLatency, stallLatency, maxErrorRate, recoveryProbes);
+        this.enabled = enabled;
+        meterRegistry.gauge("etl.backpressure.level", pressure, p -> p.level().ordinal());
+        meterRegistry.gauge("etl.backpressure.latency", pressure, DatabasePressure::latencyMillis);
+        meterRegistry.gauge("etl.backpressure.error.rate", pressure, DatabasePressure::errorRate);
+        meterRegistry.gauge("etl.backpressure.paused.partitions", this, backpressure -> backpressure.pausedPartitions);
+    }
+
+    public void recordWrite(long latencyNanos) {
+        pressure.recordWrite(latencyNanos);
+    }
+
+    /**
+     * Records a write that failed because of the database, not the data.
+     */
+    public void recordFailure() {
+        pressure.recordFailure();
+    }
+
+    public boolean isThrottled() {
+        return enabled && pressure.level() != DatabasePressure.Level.NORMAL;
+    }
+
+    @Scheduled(fixedDelayString = "${etl.backpressure.check-interval-ms:1000}")
+    public void adjust() {
+        if (!enabled) {
+            return;
+        }
+        DatabasePressure.Level before = pressure.level();
+        DatabasePressure.Level level = pressure.update(before == DatabasePressure.Level.PAUSED ? probe() : null);
+        if (level != before) {
+            log.warn("Database pressure changed from {} to {}: latency={}ms, errorRate={}",
+                    before, level, Math.round(pressure.latencyMillis()), String.format("%.2f", pressure.errorRate()));
+        }
+
+        MessageListenerContainer sink = registry.getListenerContainer(SINK_LISTENER_ID);
+        if (sink == null) {
+            return;
+        }
+        Collection<TopicPartition> assigned = sink.getAssignedPartitions();
+        List<TopicPartition> paused = new ArrayList<>();
+        if (assigned != null) {
+            for (TopicPartition partition : assigned) {
+                if (sink.isPartitionPauseRequested(partition)) {
+                    paused.add(partition);
+                }
+            }
+        }
+
+        if (level == DatabasePressure.Level.PAUSED) {
+            // Also catches partitions assigned since the pause
+            if (assigned != null) {
+                assigned.stream().filter(partition -> !paused.contains(partition)).forEach(sink::pausePartition);
+                pausedPartitions = assigned.size();
+            }
+            retryContainers().forEach(MessageListenerContainer::pause);
+            return;
+        }
+
+        List<TopicPartition> resume = level == DatabasePressure.Level.THROTTLED && !paused.isEmpty()
+                ? paused.subList(0, 1)
+                : paused;
+        resume.forEach(sink::resumePartition);
+        pausedPartitions = paused.size() - resume.size();
+        if (pausedPartitions == 0) {
+            retryContainers().stream().filter(MessageListenerContainer::isPauseRequested).forEach(MessageListenerContainer::resume);
+        }
+    }
+
+    /**
+     * Time a trivial query takes, or null when it fails.
+     */
+    private Long probe() {
+        long started = System.nanoTime();
+        try {
+            probeJdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return System.nanoTime() - started;
+        } catch (Exception e) {
+            log.debug("Database probe failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<MessageListenerContainer> retryContainers() {
+        List<MessageListenerContainer> containers = new ArrayList<>();
+        for (EventRetryRouter.RetryTier tier : retryRouter.getTiers()) {
+            MessageListenerContainer container = registry.getListenerContainer(tier.topic());
+            if (container != null) {
+                containers.add(container);
+            }
+        }
+        return containers;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.etl.service;
+
+import com.example.etl.repository.ConsumerOffsetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offsets of {@code order-events} as stored by the sink in {@code consumer_offsets}. On assignment
+ * the consumer is positioned at the stored offsets, and records below them, which are already
+ * stored, are skipped from memory before they reach the database. The unique source key on
+ * {@code events} catches whatever slips past this window. Stored offsets beyond the end of the log
+ * are deleted, see {@link LogEndOffsets}.
+ */
+@Component
+@Slf4j
+public class SinkOffsets {
+
+    private final ConsumerOffsetRepository consumerOffsetRepository;
+    private final LogEndOffsets logEndOffsets;
+    private final String group;
+    private final Map<TopicPartition, Long> nextOffsets = new ConcurrentHashMap<>();
+    private final Counter duplicates;
+
+    public SinkOffsets(ConsumerOffsetRepository consumerOffsetRepository,
+                       LogEndOffsets logEndOffsets,
+                       MeterRegistry meterRegistry,
+                       @Value("${spring.kafka.consumer.group-id}") String group) {
+        this.consumerOffsetRepository = consumerOffsetRepository;
+        this.logEndOffsets = logEndOffsets;
+        this.group = group;
+        this.duplicates = meterRegistry.counter("etl.events.duplicates");
+    }
+
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<TopicPartition, Long> stored = logEndOffsets.storedOffsets(group, assignments.keySet(), partitions -> {
+        });
+        stored.forEach((partition, offset) -> {
+            nextOffsets.put(partition, offset);
+            if (!offset.equals(assignments.get(partition))) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        });
+        log.info("Positioned at stored offsets: {}", stored);
+    }
+
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        partitions.forEach(nextOffsets::remove);
+    }
+
+    /**
+     * True for a record the sink has already stored.
+     */
+    public boolean isDuplicate(ConsumerRecord<?, ?> record) {
+        Long next = nextOffsets.get(new TopicPartition(record.topic(), record.partition()));
+        if (next != null && record.offset() < next) {
+            duplicates.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stores the offsets after {@code records}. Must run in the transaction that stores them,
+     * the in-memory window only moves once it commits.
+     */
+    public void store(Collection<? extends ConsumerRecord<?, ?>> records) {
+        Map<TopicPartition, Long> next = new HashMap<>();
+        for (ConsumerRecord<?, ?> record : records) {
+            next.merge(new TopicPartition(record.topic(), record.partition()), record.offset() + 1, Math::max);
+        }
+        if (next.isEmpty()) {
+            return;
+        }
+        consumerOffsetRepository.save(group, next);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                next.forEach((partition, offset) -> nextOffsets.merge(partition, offset, Math::max));
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.etl.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies stack traces that describe the same failure. Exception messages and generated class
+ * addresses are dropped before hashing, so traces that differ only in the failing order id or a
+ * lambda's address share one fingerprint.
+ */
+public final class StackTraceFingerprint {
+
+    private static final Pattern HEX_ADDRESS = Pattern.compile("0x[0-9a-fA-F]+");
+
+    private StackTraceFingerprint() {
+    }
+
+    /**
+     * SHA-256 of the normalized trace, hex encoded.
+     */
+    public static String of(String stackTrace) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(stackTrace).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The class of the outermost exception, from the first line of the trace.
+     */
+    public static String errorClass(String stackTrace) {
+        if (stackTrace == null || stackTrace.isBlank()) {
+            return "unknown";
+        }
+        return exceptionClass(stackTrace.lines().findFirst().orElse("").trim());
+    }
+
+    static String normalize(String stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(stackTrace.length());
+        boolean first = true;
+        for (String line : (Iterable<String>) stackTrace.lines()::iterator) {
+            String trimmed = line.trim();
+            if (first) {
+                normalized.append(exceptionClass(trimmed));
+                first = false;
+            } else if (trimmed.startsWith("Caused by: ") || trimmed.startsWith("Suppressed: ")) {
+                int prefix = trimmed.indexOf(' ') + 1;
+                normalized.append(trimmed, 0, prefix).append(exceptionClass(trimmed.substring(prefix)));
+            } else if (trimmed.startsWith("at ") || trimmed.startsWith("...")) {
+                normalized.append(HEX_ADDRESS.matcher(trimmed).replaceAll("0x"));
+            } else {
+                // Continuation of a multi-line exception message
+                continue;
+            }
+            normalized.append('\n');
+        }
+        return normalized.toString();
+    }
+
+    private static String exceptionClass(String header) {
+        int colon = header.indexOf(':');
+        return colon < 0 ? header : header.substring(0, colon);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.etl.service.archive;
+
+import com.example.common.enums.EventType;
+
+import java.time.Instant;
+
+/**
+ * An event row read back from an archive segment.
+ */
+public record ArchivedEvent(long id, long orderId, EventType eventType, String eventData, Instant createdAt) {
+}
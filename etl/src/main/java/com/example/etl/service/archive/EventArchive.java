@@ -0,0 +1,149 @@
+package com.example.etl.service.archive;
+
+import com.example.common.exception.InvalidRequestException;
+import com.example.etl.repository.EventPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The cold tier of the events table: one {@link EventSegment} file per detached partition table in
+ * {@code etl.events.archive.dir}, named {@code events-<partition>_<millis>.seg} after the table.
+ * Segment indexes are kept in memory, so a lookup only touches the blocks that can match.
+ */
+@Service
+@Slf4j
+public class EventArchive {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final EventPartitionRepository partitionRepository;
+    private final Path directory;
+    private final int blockSize;
+    private final List<EventSegment> segments = new CopyOnWriteArrayList<>();
+
+    public EventArchive(EventPartitionRepository partitionRepository,
+                        @Value("${etl.events.archive.dir:./data/archive}") Path directory,
+                        @Value("${etl.events.archive.block-size:1024}") int blockSize) throws IOException {
+        this.partitionRepository = partitionRepository;
+        this.directory = directory;
+        this.blockSize = blockSize;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "events-*.seg")) {
+            for (Path file : files) {
+                segments.add(EventSegment.open(file));
+            }
+        }
+        log.info("Event archive opened: dir={}, segments={}", directory, segments.size());
+    }
+
+    public boolean contains(String table) {
+        return Files.exists(segmentPath(table));
+    }
+
+    public long archivedRows(String table) {
+        Path path = segmentPath(table);
+        return segments.stream().filter(segment -> segment.path().equals(path)).mapToLong(EventSegment::rows).sum();
+    }
+
+    /**
+     * Writes the rows of a detached partition table to a new segment and returns the number of rows
+     * written; an empty table gets no segment. The segment only appears under its final name once
+     * complete and on disk, so the table can be dropped as soon as this returns.
+     */
+    public long archive(String table) throws IOException {
+        Path target = segmentPath(table);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long rows;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            EventSegment.Writer writer = new EventSegment.Writer(out, blockSize);
+            partitionRepository.streamDetached(table, writer::append);
+            writer.close();
+            out.flush();
+            channel.force(true);
+            rows = writer.rows();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        if (rows == 0) {
+            Files.delete(temp);
+            return 0;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        // The rename itself is only durable once the directory is synced
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+        segments.add(EventSegment.open(target));
+        return rows;
+    }
+
+    /**
+     * End of the newest archived partition, or null when nothing is archived yet. Partitions are archived
+     * oldest first, so every event before this is in a segment, apart from rows with old timestamps that
+     * were written after their partition was detached and are still in the events table.
+     */
+    public Instant archivedBefore() {
+        return segments.stream()
+                .map(segment -> segment.path().getFileName().toString())
+                // events-p<yyyyMMdd>_<millis>.seg
+                .map(name -> LocalDate.parse(name.substring("events-p".length(), "events-p".length() + 8), DateTimeFormatter.BASIC_ISO_DATE))
+                .max(Comparator.naturalOrder())
+                .map(day -> day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                .orElse(null);
+    }
+
+    /**
+     * Archived events matching the filters, oldest first. Null filters do not restrict, the time range
+     * is [from, to). When more than {@code limit} events match, only some of them are returned.
+     */
+    public List<ArchivedEvent> find(Long orderId, Instant from, Instant to, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<ArchivedEvent> events = new ArrayList<>();
+        for (EventSegment segment : segments) {
+            if ((from != null && segment.maxCreatedAt().isBefore(from))
+                    || (to != null && !segment.minCreatedAt().isBefore(to))) {
+                continue;
+            }
+            try {
+                segment.find(orderId, from, to, limit, events);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read archive segment " + segment.path(), e);
+            }
+            if (events.size() >= limit) {
+                break;
+            }
+        }
+        events.sort(Comparator.comparing(ArchivedEvent::createdAt).thenComparingLong(ArchivedEvent::id));
+        return events;
+    }
+
+    private Path segmentPath(String table) {
+        return directory.resolve("events-" + table.substring(EventPartitionRepository.DETACHED_TABLE_PREFIX.length()) + ".seg");
+    }
+}
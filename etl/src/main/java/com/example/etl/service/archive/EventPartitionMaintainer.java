@@ -0,0 +1,119 @@
+package com.example.etl.service.archive;
+
+import com.example.etl.repository.EventPartitionRepository;
+import com.example.etl.repository.EventPartitionRepository.Partition;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the events table to a bounded window of daily (UTC) partitions. Partitions are created a few
+ * days ahead, and a partition that lies entirely before the retention window is detached into its own
+ * table and dropped, which takes constant time however many rows it holds. The detached table is then
+ * written to the {@link EventArchive} and dropped once the segment is on disk; a table left by a run
+ * that stopped in between is archived by the next run.
+ */
+@Service
+@ConditionalOnProperty(name = "etl.events.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class EventPartitionMaintainer {
+
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final EventPartitionRepository partitionRepository;
+    private final EventArchive eventArchive;
+    private final MeterRegistry meterRegistry;
+    private final Duration retention;
+    private final int precreateDays;
+    private boolean warnedUnpartitioned;
+
+    public EventPartitionMaintainer(EventPartitionRepository partitionRepository,
+                                    EventArchive eventArchive,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${etl.events.archive.retention:7d}") Duration retention,
+                                    @Value("${etl.events.partitioning.precreate-days:3}") int precreateDays) {
+        this.partitionRepository = partitionRepository;
+        this.eventArchive = eventArchive;
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+        this.precreateDays = precreateDays;
+    }
+
+    @Scheduled(initialDelayString = "${etl.events.partitioning.initial-delay-ms:30000}",
+            fixedDelayString = "${etl.events.partitioning.interval-ms:3600000}")
+    public void maintainPartitions() {
+        try {
+            List<Partition> partitions = partitionRepository.findPartitions();
+            if (partitions.isEmpty()) {
+                if (!warnedUnpartitioned) {
+                    log.warn("events table is not partitioned, skipping partition maintenance and archival");
+                    warnedUnpartitioned = true;
+                }
+                return;
+            }
+            createUpcomingPartitions(partitions, Instant.now());
+            archiveExpiredPartitions(partitions, Instant.now().minus(retention));
+        } catch (Exception e) {
+            log.error("Events partition maintenance failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createUpcomingPartitions(List<Partition> partitions, Instant now) {
+        Instant lastBound = partitions.stream()
+                .map(Partition::lessThan)
+                .filter(bound -> bound != null)
+                .reduce((first, second) -> second)
+                .orElse(null);
+        LocalDate nextDay = lastBound != null
+                ? LocalDate.ofInstant(lastBound, ZoneOffset.UTC)
+                : LocalDate.ofInstant(now, ZoneOffset.UTC);
+        LocalDate lastDay = LocalDate.ofInstant(now, ZoneOffset.UTC).plusDays(precreateDays);
+
+        List<Partition> upcoming = new ArrayList<>();
+        for (LocalDate day = nextDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            upcoming.add(new Partition(PARTITION_DAY.format(day), day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+        }
+        if (!upcoming.isEmpty()) {
+            partitionRepository.addPartitions(upcoming);
+            log.info("Created events partitions: {}", upcoming.stream().map(Partition::name).toList());
+        }
+    }
+
+    private void archiveExpiredPartitions(List<Partition> partitions, Instant cutoff) throws IOException {
+        for (String table : partitionRepository.findDetachedTables()) {
+            log.info("Archiving events table left by an earlier run: {}", table);
+            archiveDetached(table);
+        }
+        for (Partition partition : partitions) {
+            if (partition.lessThan() == null || partition.lessThan().isAfter(cutoff)) {
+                continue;
+            }
+            long started = System.nanoTime();
+            String table = EventPartitionRepository.detachedTable(partition.name(), System.currentTimeMillis());
+            partitionRepository.detachPartition(partition.name(), table);
+            long rows = archiveDetached(table);
+            meterRegistry.timer("etl.events.archive").record(Duration.ofNanos(System.nanoTime() - started));
+            log.info("Archived and dropped events partition {}: rows={}", partition.name(), rows);
+        }
+    }
+
+    private long archiveDetached(String table) throws IOException {
+        // A detached table no longer changes, and a segment only exists once complete: it can be reused
+        long rows = eventArchive.contains(table) ? eventArchive.archivedRows(table) : eventArchive.archive(table);
+        partitionRepository.dropDetached(table);
+        meterRegistry.counter("etl.events.archived").increment(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.etl.service.archive;
+
+import com.example.common.enums.EventType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A compressed, immutable file of archived events sorted by order id.
+ * <p>
+ * Layout: a header ({@code EVSG} magic, version), then the rows in independently gzip-compressed blocks,
+ * then a sparse index with one entry per block (file offset, length, row count, first and last order id,
+ * oldest and newest created_at), then a footer with the index offset and block count. A lookup reads the
+ * index and decompresses only the blocks whose order id and time range can match.
+ */
+public final class EventSegment {
+
+    private static final int MAGIC = 0x45565347; // "EVSG"
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+    private static final int FOOTER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4 + 8 + 8 + 8 + 8;
+
+    private final Path path;
+    private final List<BlockIndex> blocks;
+
+    private EventSegment(Path path, List<BlockIndex> blocks) {
+        this.path = path;
+        this.blocks = blocks;
+    }
+
+    record BlockIndex(long offset, int length, int rows, long firstOrderId, long lastOrderId,
+                      Instant minCreatedAt, Instant maxCreatedAt) {
+
+        boolean mayContain(Long orderId, Instant from, Instant to) {
+            return (orderId == null || (orderId >= firstOrderId && orderId <= lastOrderId))
+                    && (from == null || !maxCreatedAt.isBefore(from))
+                    && (to == null || minCreatedAt.isBefore(to));
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long rows() {
+        return blocks.stream().mapToLong(BlockIndex::rows).sum();
+    }
+
+    public Instant minCreatedAt() {
+        return blocks.stream().map(BlockIndex::minCreatedAt).min(Instant::compareTo).orElse(Instant.MAX);
+    }
+
+    public Instant maxCreatedAt() {
+        return blocks.stream().map(BlockIndex::maxCreatedAt).max(Instant::compareTo).orElse(Instant.MIN);
+    }
+
+    /**
+     * Adds matching events to {@code out} until it holds {@code limit} events.
+     * Null filters do not restrict; the time range is [from, to).
+     */
+    public void find(Long orderId, Instant from, Instant to, int limit, List<ArchivedEvent> out) throws IOException {
+        Predicate<ArchivedEvent> matches = event -> (orderId == null || event.orderId() == orderId)
+                && (from == null || !event.createdAt().isBefore(from))
+                && (to == null || event.createdAt().isBefore(to));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (BlockIndex block : blocks) {
+                if (out.size() >= limit) {
+                    return;
+                }
+                if (!block.mayContain(orderId, from, to)) {
+                    continue;
+                }
+                for (ArchivedEvent event : readBlock(channel, block)) {
+                    if (matches.test(event)) {
+                        out.add(event);
+                        if (out.size() >= limit) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static EventSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            if (size < HEADER_SIZE + FOOTER_SIZE || header.getInt() != MAGIC || header.get() != VERSION) {
+                throw new IOException("Not an event segment: " + path);
+            }
+            ByteBuffer footer = read(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            int blockCount = footer.getInt();
+            if (footer.getInt() != MAGIC) {
+                throw new IOException("Truncated event segment: " + path);
+            }
+
+            ByteBuffer index = read(channel, indexOffset, blockCount * INDEX_ENTRY_SIZE);
+            List<BlockIndex> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new BlockIndex(index.getLong(), index.getInt(), index.getInt(), index.getLong(), index.getLong(),
+                        fromMicros(index.getLong()), fromMicros(index.getLong())));
+            }
+            return new EventSegment(path, List.copyOf(blocks));
+        }
+    }
+
+    private static List<ArchivedEvent> readBlock(FileChannel channel, BlockIndex block) throws IOException {
+        ByteBuffer compressed = read(channel, block.offset(), block.length());
+        List<ArchivedEvent> events = new ArrayList<>(block.rows());
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new ByteArrayInputStream(compressed.array(), 0, block.length())))) {
+            for (int i = 0; i < block.rows(); i++) {
+                long id = in.readLong();
+                long orderId = in.readLong();
+                EventType eventType = EventType.valueOf(in.readUTF());
+                Instant createdAt = fromMicros(in.readLong());
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                events.add(new ArchivedEvent(id, orderId, eventType, new String(data, StandardCharsets.UTF_8), createdAt));
+            }
+        }
+        return events;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of event segment");
+            }
+        }
+        return buffer.flip();
+    }
+
+    static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000L);
+    }
+
+    /**
+     * Writes a segment. Rows must be appended in order id order for the index to be selective.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final OutputStream out;
+        private final int blockSize;
+        private final List<BlockIndex> index = new ArrayList<>();
+        private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+        private DataOutputStream block;
+        private long position;
+        private int blockRows;
+        private long firstOrderId;
+        private long lastOrderId;
+        private long minCreatedAt;
+        private long maxCreatedAt;
+        private long rows;
+
+        public Writer(OutputStream out, int blockSize) throws IOException {
+            this.out = out;
+            this.blockSize = blockSize;
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            position = HEADER_SIZE;
+        }
+
+        public void append(long id, long orderId, EventType eventType, String eventData, Instant createdAt) throws IOException {
+            if (blockRows == 0) {
+                blockBytes.reset();
+                block = new DataOutputStream(new GZIPOutputStream(blockBytes));
+                firstOrderId = orderId;
+                minCreatedAt = Long.MAX_VALUE;
+                maxCreatedAt = Long.MIN_VALUE;
+            }
+            long createdMicros = toMicros(createdAt);
+            byte[] data = eventData.getBytes(StandardCharsets.UTF_8);
+            block.writeLong(id);
+            block.writeLong(orderId);
+            block.writeUTF(eventType.name());
+            block.writeLong(createdMicros);
+            block.writeInt(data.length);
+            block.write(data);
+
+            blockRows++;
+            rows++;
+            lastOrderId = orderId;
+            minCreatedAt = Math.min(minCreatedAt, createdMicros);
+            maxCreatedAt = Math.max(maxCreatedAt, createdMicros);
+            if (blockRows == blockSize) {
+                flushBlock();
+            }
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        private void flushBlock() throws IOException {
+            block.close();
+            blockBytes.writeTo(out);
+            index.add(new BlockIndex(position, blockBytes.size(), blockRows, firstOrderId, lastOrderId,
+                    fromMicros(minCreatedAt), fromMicros(maxCreatedAt)));
+            position += blockBytes.size();
+            blockRows = 0;
+        }
+
+        /**
+         * Writes the pending block, the index and the footer. Does not close the underlying stream.
+         */
+        @Override
+        public void close() throws IOException {
+            if (blockRows > 0) {
+                flushBlock();
+            }
+            DataOutputStream tail = new DataOutputStream(out);
+            for (BlockIndex entry : index) {
+                tail.writeLong(entry.offset());
+                tail.writeInt(entry.length());
+                tail.writeInt(entry.rows());
+                tail.writeLong(entry.firstOrderId());
+                tail.writeLong(entry.lastOrderId());
+                tail.writeLong(toMicros(entry.minCreatedAt()));
+                tail.writeLong(toMicros(entry.maxCreatedAt()));
+            }
+            tail.writeLong(position);
+            tail.writeInt(index.size());
+            tail.writeInt(MAGIC);
+            tail.flush();
+        }
+    }
+}
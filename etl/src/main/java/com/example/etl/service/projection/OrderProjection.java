@@ -0,0 +1,275 @@
+package com.example.etl.service.projection;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.OrderStatus;
+import com.example.etl.repository.ConsumerOffsetRepository;
+import com.example.etl.repository.OrderProjectionRepository;
+import com.example.etl.service.LogEndOffsets;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Current state of every order, with counts per status and totals per symbol, kept in memory from
+ * {@code order-events}. Changed orders are written to {@code order_projection} every
+ * {@code etl.projection.snapshot-interval-ms} together with the offsets they were applied up to, so on
+ * assignment a partition's orders are loaded from the table and consumption resumes at the snapshot
+ * offsets instead of the beginning of the topic. Events after the snapshot are applied again, which
+ * leads to the same state.
+ * <p>
+ * Memory holds the partitions this instance is assigned; {@link #find} falls back to the table for
+ * orders of other partitions, as of their owner's last snapshot.
+ */
+@Component
+@ConditionalOnProperty(name = "etl.projection.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OrderProjection {
+
+    private final OrderProjectionRepository orderProjectionRepository;
+    private final ConsumerOffsetRepository consumerOffsetRepository;
+    private final LogEndOffsets logEndOffsets;
+    private final ObjectReader eventDataReader;
+    private final TransactionTemplate transactionTemplate;
+    private final String group;
+    private final Counter skipped;
+    private final Timer snapshotTimer;
+    private final Object snapshotLock = new Object();
+
+    // Guarded by this
+    private final Map<Long, ProjectedOrder> orders = new HashMap<>();
+    private final Map<OrderStatus, Long> statusCounts = new EnumMap<>(OrderStatus.class);
+    private final Map<String, SymbolTotals> symbolTotals = new TreeMap<>();
+    private final Map<TopicPartition, Long> appliedOffsets = new HashMap<>();
+    private final Set<Long> changed = new HashSet<>();
+
+    public OrderProjection(OrderProjectionRepository orderProjectionRepository,
+                           ConsumerOffsetRepository consumerOffsetRepository,
+                           LogEndOffsets logEndOffsets,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${etl.projection.group-id:etl-projection}") String group) {
+        this.orderProjectionRepository = orderProjectionRepository;
+        this.consumerOffsetRepository = consumerOffsetRepository;
+        this.logEndOffsets = logEndOffsets;
+        // Prices and quantities keep their decimal digits
+        this.eventDataReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.group = group;
+        this.skipped = meterRegistry.counter("etl.projection.skipped");
+        this.snapshotTimer = meterRegistry.timer("etl.projection.snapshot");
+        meterRegistry.gauge("etl.projection.orders", this, OrderProjection::size);
+    }
+
+    /**
+     * Loads the snapshot of the assigned partitions and positions the consumer after it, or at the
+     * beginning of a partition without one. A snapshot taken of a log that has since been recreated
+     * is deleted instead of loaded.
+     */
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<TopicPartition, Long> snapshotOffsets = logEndOffsets.storedOffsets(group, assignments.keySet(),
+                stale -> orderProjectionRepository.deletePartitions(stale.stream().map(TopicPartition::partition).toList()));
+        List<ProjectedOrder> loaded = new ArrayList<>();
+        // Orders are snapshotted with their offsets, so only partitions with offsets have any
+        orderProjectionRepository.streamPartitions(snapshotOffsets.keySet().stream().map(TopicPartition::partition).toList(), loaded::add);
+
+        synchronized (this) {
+            loaded.forEach(order -> replace(orders.get(order.orderId()), order));
+            appliedOffsets.putAll(snapshotOffsets);
+        }
+        assignments.forEach((partition, position) -> {
+            Long offset = snapshotOffsets.get(partition);
+            if (offset == null) {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            } else if (!offset.equals(position)) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        });
+        log.info("Loaded {} projected orders, positioned at snapshot offsets {}", loaded.size(), snapshotOffsets);
+    }
+
+    /**
+     * Snapshots what was applied from revoked partitions and drops their orders from memory; the
+     * next owner continues from the snapshot.
+     */
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        snapshot();
+        Set<Integer> revoked = new HashSet<>();
+        partitions.forEach(partition -> revoked.add(partition.partition()));
+        synchronized (this) {
+            List<ProjectedOrder> dropped = orders.values().stream()
+                    .filter(order -> revoked.contains(order.sourcePartition()))
+                    .toList();
+            dropped.forEach(order -> {
+                replace(order, null);
+                changed.remove(order.orderId());
+            });
+            partitions.forEach(appliedOffsets::remove);
+        }
+    }
+
+    /**
+     * Applies events in offset order. Records below the applied offset of their partition, redelivered
+     * after an error, are skipped; so are records that cannot be applied, which the sink dead-letters.
+     */
+    public void apply(List<ConsumerRecord<String, OrderEventDto>> records) {
+        List<JsonNode> data = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, OrderEventDto> record : records) {
+            data.add(read(record));
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < records.size(); i++) {
+                ConsumerRecord<String, OrderEventDto> record = records.get(i);
+                TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                Long applied = appliedOffsets.get(partition);
+                if (applied != null && record.offset() < applied) {
+                    continue;
+                }
+                if (data.get(i) != null) {
+                    apply(record, data.get(i));
+                }
+                appliedOffsets.put(partition, record.offset() + 1);
+            }
+        }
+    }
+
+    private void apply(ConsumerRecord<String, OrderEventDto> record, JsonNode data) {
+        OrderEventDto event = record.value();
+        Instant at = event.getTimestamp() != null ? event.getTimestamp() : Instant.ofEpochMilli(record.timestamp());
+        ProjectedOrder current = orders.get(event.getOrderId());
+        ProjectedOrder next;
+        try {
+            next = ProjectedOrder.apply(current, event, data, record.partition(), at);
+        } catch (RuntimeException e) {
+            log.warn("Order event not projected: orderId={}, partition={}, offset={}, error={}",
+                    event.getOrderId(), record.partition(), record.offset(), e.getMessage());
+            skipped.increment();
+            return;
+        }
+        replace(current, next);
+        changed.add(next.orderId());
+    }
+
+    private JsonNode read(ConsumerRecord<String, OrderEventDto> record) {
+        OrderEventDto event = record.value();
+        if (event == null || event.getOrderId() == null || event.getEventType() == null || event.getEventData() == null) {
+            skipped.increment();
+            return null;
+        }
+        try {
+            return eventDataReader.readTree(event.getEventData());
+        } catch (Exception e) {
+            log.warn("Order event data not readable: orderId={}, partition={}, offset={}, error={}",
+                    event.getOrderId(), record.partition(), record.offset(), e.getMessage());
+            skipped.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Moves the indexes from {@code previous} to {@code next}; either may be null.
+     */
+    private void replace(ProjectedOrder previous, ProjectedOrder next) {
+        if (previous != null) {
+            orders.remove(previous.orderId());
+            statusCounts.computeIfPresent(previous.status(), (status, count) -> count == 1 ? null : count - 1);
+            symbolTotals.computeIfPresent(previous.symbol(), (symbol, totals) -> totals.minus(previous));
+        }
+        if (next != null) {
+            orders.put(next.orderId(), next);
+            statusCounts.merge(next.status(), 1L, Long::sum);
+            symbolTotals.merge(next.symbol(), SymbolTotals.of(next), SymbolTotals::plus);
+        }
+    }
+
+    /**
+     * Writes the orders changed since the last snapshot with the offsets applied so far, in one
+     * transaction. On failure the orders stay marked as changed for the next snapshot.
+     */
+    @Scheduled(fixedDelayString = "${etl.projection.snapshot-interval-ms:10000}")
+    public void snapshot() {
+        // Snapshots are written one at a time, so an older one never overwrites a newer one
+        synchronized (snapshotLock) {
+            List<ProjectedOrder> snapshot;
+            Map<TopicPartition, Long> offsets;
+            synchronized (this) {
+                if (changed.isEmpty()) {
+                    return;
+                }
+                snapshot = changed.stream().map(orders::get).toList();
+                offsets = new HashMap<>(appliedOffsets);
+                changed.clear();
+            }
+
+            long started = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    orderProjectionRepository.saveAll(snapshot);
+                    consumerOffsetRepository.save(group, offsets);
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to write order projection snapshot, will retry: {}", e.getMessage(), e);
+                synchronized (this) {
+                    snapshot.stream()
+                            .filter(order -> orders.containsKey(order.orderId()))
+                            .forEach(order -> changed.add(order.orderId()));
+                }
+                return;
+            }
+            snapshotTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Wrote order projection snapshot: {} orders, offsets {}", snapshot.size(), offsets);
+        }
+    }
+
+    public Optional<ProjectedOrder> find(long orderId) {
+        ProjectedOrder order;
+        synchronized (this) {
+            order = orders.get(orderId);
+        }
+        return order != null ? Optional.of(order) : orderProjectionRepository.find(orderId);
+    }
+
+    public synchronized Map<OrderStatus, Long> statusCounts() {
+        return new EnumMap<>(statusCounts);
+    }
+
+    public synchronized List<SymbolTotals> symbolTotals() {
+        return new ArrayList<>(symbolTotals.values());
+    }
+
+    public synchronized Optional<SymbolTotals> symbolTotals(String symbol) {
+        return Optional.ofNullable(symbolTotals.get(symbol));
+    }
+
+    private synchronized int size() {
+        return orders.size();
+    }
+}
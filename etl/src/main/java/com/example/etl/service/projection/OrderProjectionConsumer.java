@@ -0,0 +1,46 @@
+package com.example.etl.service.projection;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds {@code order-events} to {@link OrderProjection} in a consumer group of its own, so the
+ * projection keeps its own position next to the sink's.
+ */
+@Service
+@ConditionalOnProperty(name = "etl.projection.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderProjectionConsumer implements ConsumerSeekAware {
+
+    private final OrderProjection orderProjection;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        orderProjection.onPartitionsAssigned(assignments, callback);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        orderProjection.onPartitionsRevoked(partitions);
+    }
+
+    @KafkaListener(topics = Constants.ORDER_EVENTS_TOPIC, groupId = "${etl.projection.group-id:etl-projection}",
+            containerFactory = "batchListenerContainerFactory")
+    public void handleOrderEvents(List<ConsumerRecord<String, OrderEventDto>> records) {
+        log.debug("Projecting batch of {} order events", records.size());
+        orderProjection.apply(records);
+    }
+}
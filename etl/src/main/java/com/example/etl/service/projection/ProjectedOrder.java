@@ -0,0 +1,124 @@
+package com.example.etl.service.projection;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * Current state of an order as projected from its events. {@code price} is the order's limit price
+ * and stays null for an order only seen through fills; {@code filledNotional} sums price times
+ * quantity over the fills.
+ */
+public record ProjectedOrder(Long orderId,
+                             String symbol,
+                             OrderSide side,
+                             OrderStatus status,
+                             BigDecimal quantity,
+                             BigDecimal price,
+                             BigDecimal filledQuantity,
+                             BigDecimal filledNotional,
+                             int sourcePartition,
+                             Instant createdAt,
+                             Instant updatedAt) {
+
+    /**
+     * Scale of the quantity and price columns
+     */
+    static final int SCALE = 8;
+
+    public boolean isOpen() {
+        return status == OrderStatus.PENDING;
+    }
+
+    /**
+     * Quantity still to be filled while the order is open, zero once it is not.
+     */
+    public BigDecimal openQuantity() {
+        if (!isOpen() || quantity == null) {
+            return BigDecimal.ZERO;
+        }
+        return quantity.subtract(filledQuantity).max(BigDecimal.ZERO);
+    }
+
+    /**
+     * The order after {@code event}, whose event data is {@code data}. {@code current} is null for an
+     * order without earlier events, which starts from whatever the event carries.
+     * <p>
+     * ORDER_EXECUTED comes either as an execution report for one fill from the matching engine,
+     * recognised by its {@code executionQuantity}, or as the whole order when execution is simulated,
+     * which fills the rest of it at its own price. Every other event only moves the status.
+     */
+    public static ProjectedOrder apply(ProjectedOrder current, OrderEventDto event, JsonNode data, int partition, Instant at) {
+        ProjectedOrder order = current != null ? current : new ProjectedOrder(
+                event.getOrderId(),
+                event.getSymbol() != null ? event.getSymbol() : data.path("symbol").asText(null),
+                side(data),
+                OrderStatus.PENDING,
+                decimal(data, "quantity"),
+                data.has("executionQuantity") ? null : decimal(data, "price"),
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                partition,
+                at,
+                at);
+        if (order.symbol == null) {
+            throw new IllegalArgumentException("Order event without a symbol");
+        }
+
+        if (data.has("executionQuantity")) {
+            BigDecimal executed = decimal(data, "executionQuantity");
+            BigDecimal filled = decimal(data, "filledQuantity");
+            return order.with(
+                    status(data, OrderStatus.PENDING),
+                    filled != null ? filled : order.filledQuantity.add(executed),
+                    order.filledNotional.add(notional(decimal(data, "executionPrice"), executed)),
+                    at);
+        }
+
+        OrderStatus status = status(data, switch (event.getEventType()) {
+            case ORDER_CREATED -> OrderStatus.PENDING;
+            case ORDER_EXECUTED -> OrderStatus.EXECUTED;
+            case ORDER_CANCELLED -> OrderStatus.CANCELLED;
+            case ORDER_FAILED -> OrderStatus.FAILED;
+        });
+        if (event.getEventType() == EventType.ORDER_EXECUTED && order.quantity != null) {
+            BigDecimal rest = order.quantity.subtract(order.filledQuantity).max(BigDecimal.ZERO);
+            return order.with(status, order.quantity.max(order.filledQuantity),
+                    order.filledNotional.add(notional(order.price, rest)), at);
+        }
+        return order.with(status, order.filledQuantity, order.filledNotional, at);
+    }
+
+    private ProjectedOrder with(OrderStatus status, BigDecimal filledQuantity, BigDecimal filledNotional, Instant at) {
+        return new ProjectedOrder(orderId, symbol, side, status, quantity, price, filledQuantity, filledNotional,
+                sourcePartition, createdAt, at);
+    }
+
+    private static BigDecimal notional(BigDecimal price, BigDecimal quantity) {
+        if (price == null || quantity == null) {
+            return BigDecimal.ZERO;
+        }
+        return price.multiply(quantity).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static OrderStatus status(JsonNode data, OrderStatus fallback) {
+        JsonNode status = data.get("status");
+        return status != null && status.isTextual() ? OrderStatus.valueOf(status.asText()) : fallback;
+    }
+
+    private static OrderSide side(JsonNode data) {
+        JsonNode side = data.get("side");
+        return side != null && side.isTextual() ? OrderSide.valueOf(side.asText()) : null;
+    }
+
+    private static BigDecimal decimal(JsonNode data, String field) {
+        JsonNode value = data.get(field);
+        return value != null && value.isNumber() ? value.decimalValue() : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.etl.service.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals over the projected orders of one symbol.
+ */
+public record SymbolTotals(String symbol,
+                           long orders,
+                           long openOrders,
+                           BigDecimal openQuantity,
+                           BigDecimal filledQuantity,
+                           BigDecimal filledNotional) {
+
+    static SymbolTotals of(ProjectedOrder order) {
+        return new SymbolTotals(order.symbol(), 1, order.isOpen() ? 1 : 0, order.openQuantity(),
+                order.filledQuantity(), order.filledNotional());
+    }
+
+    SymbolTotals plus(SymbolTotals other) {
+        return new SymbolTotals(symbol, orders + other.orders, openOrders + other.openOrders,
+                openQuantity.add(other.openQuantity), filledQuantity.add(other.filledQuantity),
+                filledNotional.add(other.filledNotional));
+    }
+
+    /**
+     * These totals without {@code order}, null when no order is left.
+     */
+    SymbolTotals minus(ProjectedOrder order) {
+        if (orders == 1) {
+            return null;
+        }
+        return new SymbolTotals(symbol, orders - 1, openOrders - (order.isOpen() ? 1 : 0),
+                openQuantity.subtract(order.openQuantity()), filledQuantity.subtract(order.filledQuantity()),
+                filledNotional.subtract(order.filledNotional()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.etl.service.rollup;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+import com.example.common.enums.OrderSide;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One trade as read from an ORDER_EXECUTED event.
+ */
+public record Execution(String symbol, BigDecimal price, BigDecimal quantity, Instant executedAt) {
+
+    /**
+     * The trade an event reports, or null when it does not report one to count.
+     * <p>
+     * The matching engine sends an execution report for each side of a trade; only the buy side is
+     * counted, so every trade counts once. Simulated execution sends the whole order, which executes
+     * in full at its price at the time of the event.
+     */
+    public static Execution from(OrderEventDto event, JsonNode data, Instant eventTime) {
+        if (event.getEventType() != EventType.ORDER_EXECUTED || event.getSymbol() == null) {
+            return null;
+        }
+        if (data.has("executionQuantity")) {
+            if (!OrderSide.BUY.name().equals(data.path("side").asText(null))) {
+                return null;
+            }
+            Instant executedAt = instant(data.get("executedAt"));
+            return of(event.getSymbol(), decimal(data, "executionPrice"), decimal(data, "executionQuantity"),
+                    executedAt != null ? executedAt : eventTime);
+        }
+        return of(event.getSymbol(), decimal(data, "price"), decimal(data, "quantity"), eventTime);
+    }
+
+    private static Execution of(String symbol, BigDecimal price, BigDecimal quantity, Instant executedAt) {
+        if (price == null || quantity == null || quantity.signum() <= 0) {
+            return null;
+        }
+        return new Execution(symbol, price, quantity, executedAt);
+    }
+
+    private static BigDecimal decimal(JsonNode data, String field) {
+        JsonNode value = data.get(field);
+        return value != null && value.isNumber() ? value.decimalValue() : null;
+    }
+
+    /**
+     * Reads an Instant written either as ISO-8601 text or as decimal epoch seconds, Jackson's default.
+     */
+    private static Instant instant(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isTextual()) {
+            return Instant.parse(value.asText());
+        }
+        BigDecimal seconds = value.decimalValue();
+        return Instant.ofEpochSecond(seconds.longValue(),
+                seconds.subtract(new BigDecimal(seconds.longValue())).movePointRight(9).longValue());
+    }
+}
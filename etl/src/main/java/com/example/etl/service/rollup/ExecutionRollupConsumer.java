@@ -0,0 +1,46 @@
+package com.example.etl.service.rollup;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds {@code order-events} to {@link ExecutionRollups} in a consumer group of its own, so the
+ * rollups keep their own position next to the sink's.
+ */
+@Service
+@ConditionalOnProperty(name = "etl.rollups.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionRollupConsumer implements ConsumerSeekAware {
+
+    private final ExecutionRollups executionRollups;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        executionRollups.onPartitionsAssigned(assignments, callback);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        executionRollups.onPartitionsRevoked(partitions);
+    }
+
+    @KafkaListener(topics = Constants.ORDER_EVENTS_TOPIC, groupId = "${etl.rollups.group-id:etl-rollups}",
+            containerFactory = "batchListenerContainerFactory")
+    public void handleOrderEvents(List<ConsumerRecord<String, OrderEventDto>> records) {
+        log.debug("Rolling up batch of {} order events", records.size());
+        executionRollups.apply(records);
+    }
+}
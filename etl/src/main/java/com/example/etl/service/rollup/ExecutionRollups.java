@@ -0,0 +1,256 @@
+package com.example.etl.service.rollup;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.exception.InvalidRequestException;
+import com.example.etl.model.dto.ExecutionRollup;
+import com.example.etl.repository.ConsumerOffsetRepository;
+import com.example.etl.repository.ExecutionRollupRepository;
+import com.example.etl.service.LogEndOffsets;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-symbol rollups of ORDER_EXECUTED events in 1s, 1m and 1h windows. Executions are aggregated in
+ * memory per partition and merged into {@code execution_rollups} every {@code etl.rollups.flush-interval-ms}
+ * together with the offsets they were applied up to, so every execution is counted once across flushes,
+ * restarts and rebalances.
+ * <p>
+ * An execution is dropped from a window that ended more than {@code etl.rollups.allowed-lateness}
+ * before the newest execution of its partition, so windows older than that no longer change.
+ */
+@Component
+@ConditionalOnProperty(name = "etl.rollups.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ExecutionRollups {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final ExecutionRollupRepository executionRollupRepository;
+    private final ConsumerOffsetRepository consumerOffsetRepository;
+    private final LogEndOffsets logEndOffsets;
+    private final ObjectReader eventDataReader;
+    private final TransactionTemplate transactionTemplate;
+    private final String group;
+    private final Duration allowedLateness;
+    private final Counter executions;
+    private final Counter skipped;
+    private final Map<RollupResolution, Counter> lateDropped = new EnumMap<>(RollupResolution.class);
+    private final Timer flushTimer;
+    private final Object flushLock = new Object();
+
+    // Guarded by this
+    private Map<TopicPartition, Map<Rollup.Key, Rollup>> pending = new HashMap<>();
+    private final Map<TopicPartition, Instant> watermarks = new HashMap<>();
+    private final Map<TopicPartition, Long> appliedOffsets = new HashMap<>();
+    private boolean offsetsAdvanced;
+
+    public ExecutionRollups(ExecutionRollupRepository executionRollupRepository,
+                            ConsumerOffsetRepository consumerOffsetRepository,
+                            LogEndOffsets logEndOffsets,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${etl.rollups.group-id:etl-rollups}") String group,
+                            @Value("${etl.rollups.allowed-lateness:10s}") Duration allowedLateness) {
+        this.executionRollupRepository = executionRollupRepository;
+        this.consumerOffsetRepository = consumerOffsetRepository;
+        this.logEndOffsets = logEndOffsets;
+        // Prices and quantities keep their decimal digits
+        this.eventDataReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.group = group;
+        this.allowedLateness = allowedLateness;
+        this.executions = meterRegistry.counter("etl.rollups.executions");
+        this.skipped = meterRegistry.counter("etl.rollups.skipped");
+        for (RollupResolution resolution : RollupResolution.values()) {
+            lateDropped.put(resolution, meterRegistry.counter("etl.rollups.late.dropped", "resolution", resolution.label()));
+        }
+        this.flushTimer = meterRegistry.timer("etl.rollups.flush");
+        meterRegistry.gauge("etl.rollups.pending", this, ExecutionRollups::pendingWindows);
+    }
+
+    /**
+     * Positions the consumer after the last flush of the assigned partitions, or at the beginning of a
+     * partition never flushed or flushed from a log that has since been recreated.
+     */
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // Windows flushed from the old log stay, the new log's executions are added once
+        Map<TopicPartition, Long> flushedOffsets = logEndOffsets.storedOffsets(group, assignments.keySet(), partitions -> {
+        });
+        synchronized (this) {
+            appliedOffsets.putAll(flushedOffsets);
+        }
+        assignments.forEach((partition, position) -> {
+            Long offset = flushedOffsets.get(partition);
+            if (offset == null) {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            } else if (!offset.equals(position)) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        });
+        log.info("Execution rollups positioned at flushed offsets {}", flushedOffsets);
+    }
+
+    /**
+     * Flushes what was applied from revoked partitions. If that fails, their executions are dropped
+     * here; the next owner applies them again from the last flush.
+     */
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        flush();
+        synchronized (this) {
+            partitions.forEach(partition -> {
+                pending.remove(partition);
+                watermarks.remove(partition);
+                appliedOffsets.remove(partition);
+            });
+        }
+    }
+
+    /**
+     * Applies events in offset order. Records below the applied offset of their partition, redelivered
+     * after an error, are skipped.
+     */
+    public void apply(List<ConsumerRecord<String, OrderEventDto>> records) {
+        Execution[] read = new Execution[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            read[i] = read(records.get(i));
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < records.size(); i++) {
+                ConsumerRecord<String, OrderEventDto> record = records.get(i);
+                TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                Long applied = appliedOffsets.get(partition);
+                if (applied != null && record.offset() < applied) {
+                    continue;
+                }
+                if (read[i] != null) {
+                    apply(partition, read[i]);
+                }
+                appliedOffsets.put(partition, record.offset() + 1);
+                offsetsAdvanced = true;
+            }
+        }
+    }
+
+    private void apply(TopicPartition partition, Execution execution) {
+        Instant watermark = watermarks.get(partition);
+        Map<Rollup.Key, Rollup> windows = pending.computeIfAbsent(partition, p -> new HashMap<>());
+        for (RollupResolution resolution : RollupResolution.values()) {
+            Rollup rollup = Rollup.of(resolution, execution);
+            Instant closesAt = rollup.key().windowStart().plus(resolution.length()).plus(allowedLateness);
+            if (watermark != null && closesAt.isBefore(watermark)) {
+                lateDropped.get(resolution).increment();
+                continue;
+            }
+            windows.merge(rollup.key(), rollup, Rollup::merge);
+        }
+        if (watermark == null || execution.executedAt().isAfter(watermark)) {
+            watermarks.put(partition, execution.executedAt());
+        }
+        executions.increment();
+    }
+
+    private Execution read(ConsumerRecord<String, OrderEventDto> record) {
+        OrderEventDto event = record.value();
+        if (event == null || event.getEventType() == null || event.getEventData() == null) {
+            return null;
+        }
+        try {
+            JsonNode data = eventDataReader.readTree(event.getEventData());
+            Instant eventTime = event.getTimestamp() != null ? event.getTimestamp() : Instant.ofEpochMilli(record.timestamp());
+            return Execution.from(event, data, eventTime);
+        } catch (Exception e) {
+            log.warn("Execution not rolled up: orderId={}, partition={}, offset={}, error={}",
+                    event.getOrderId(), record.partition(), record.offset(), e.getMessage());
+            skipped.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Merges the windows changed since the last flush into the table with the offsets applied so far,
+     * in one transaction. On failure the changes are kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${etl.rollups.flush-interval-ms:1000}")
+    public void flush() {
+        // Flushes are written one at a time, so offsets never move back
+        synchronized (flushLock) {
+            Map<TopicPartition, Map<Rollup.Key, Rollup>> flushed;
+            Map<TopicPartition, Long> offsets;
+            synchronized (this) {
+                if (!offsetsAdvanced) {
+                    return;
+                }
+                flushed = pending;
+                pending = new HashMap<>();
+                offsets = new HashMap<>(appliedOffsets);
+                offsetsAdvanced = false;
+            }
+
+            // Partitions share symbols, their windows are merged into one row each
+            Map<Rollup.Key, Rollup> rows = new HashMap<>();
+            flushed.values().forEach(windows -> windows.forEach((key, rollup) -> rows.merge(key, rollup, Rollup::merge)));
+
+            long started = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    executionRollupRepository.mergeAll(rows.values());
+                    consumerOffsetRepository.save(group, offsets);
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to flush execution rollups, will retry: {}", e.getMessage(), e);
+                synchronized (this) {
+                    flushed.forEach((partition, windows) -> {
+                        if (appliedOffsets.containsKey(partition)) {
+                            Map<Rollup.Key, Rollup> current = pending.computeIfAbsent(partition, p -> new HashMap<>());
+                            windows.forEach((key, rollup) -> current.merge(key, rollup, Rollup::merge));
+                        }
+                    });
+                    offsetsAdvanced = true;
+                }
+                return;
+            }
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Flushed execution rollups: {} windows, offsets {}", rows.size(), offsets);
+        }
+    }
+
+    /**
+     * Flushed windows of a symbol starting in [from, to), oldest first.
+     */
+    public List<ExecutionRollup> find(String symbol, RollupResolution resolution, Instant from, Instant to, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return executionRollupRepository.find(symbol, resolution, from, to, limit);
+    }
+
+    private synchronized int pendingWindows() {
+        return pending.values().stream().mapToInt(Map::size).sum();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.etl.service.rollup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * Executions of one symbol in one window: count, traded quantity, notional and open, high, low and
+ * close price. Rollups of the same window merge, in any order, into the rollup of all their executions.
+ */
+public record Rollup(Key key,
+                     long count,
+                     BigDecimal quantity,
+                     BigDecimal notional,
+                     BigDecimal open,
+                     Instant openAt,
+                     BigDecimal high,
+                     BigDecimal low,
+                     BigDecimal close,
+                     Instant closeAt) {
+
+    /**
+     * Scale of prices, quantities and notionals in the rollup table
+     */
+    static final int SCALE = 8;
+
+    public record Key(String symbol, RollupResolution resolution, Instant windowStart) {
+    }
+
+    public static Rollup of(RollupResolution resolution, Execution execution) {
+        Key key = new Key(execution.symbol(), resolution, resolution.windowStart(execution.executedAt()));
+        BigDecimal notional = execution.price().multiply(execution.quantity()).setScale(SCALE, RoundingMode.HALF_UP);
+        return new Rollup(key, 1, execution.quantity(), notional,
+                execution.price(), execution.executedAt(),
+                execution.price(), execution.price(),
+                execution.price(), execution.executedAt());
+    }
+
+    public Rollup merge(Rollup other) {
+        boolean otherOpensFirst = other.openAt.isBefore(openAt);
+        boolean otherClosesLast = !other.closeAt.isBefore(closeAt);
+        return new Rollup(key, count + other.count, quantity.add(other.quantity), notional.add(other.notional),
+                otherOpensFirst ? other.open : open, otherOpensFirst ? other.openAt : openAt,
+                high.max(other.high), low.min(other.low),
+                otherClosesLast ? other.close : close, otherClosesLast ? other.closeAt : closeAt);
+    }
+}
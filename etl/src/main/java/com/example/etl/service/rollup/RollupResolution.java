@@ -0,0 +1,46 @@
+package com.example.etl.service.rollup;
+
+import com.example.common.exception.InvalidRequestException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Window length of an execution rollup. Windows are aligned to the epoch, so in UTC they start on
+ * whole seconds, minutes and hours.
+ */
+public enum RollupResolution {
+    SECOND("1s", Duration.ofSeconds(1)),
+    MINUTE("1m", Duration.ofMinutes(1)),
+    HOUR("1h", Duration.ofHours(1));
+
+    private final String label;
+    private final Duration length;
+
+    RollupResolution(String label, Duration length) {
+        this.label = label;
+        this.length = length;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public Duration length() {
+        return length;
+    }
+
+    public Instant windowStart(Instant at) {
+        long millis = length.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(at.toEpochMilli(), millis) * millis);
+    }
+
+    public static RollupResolution fromLabel(String label) {
+        for (RollupResolution resolution : values()) {
+            if (resolution.label.equals(label)) {
+                return resolution;
+            }
+        }
+        throw new InvalidRequestException("Unknown rollup resolution: " + label + " (expected 1s, 1m or 1h)");
+    }
+}
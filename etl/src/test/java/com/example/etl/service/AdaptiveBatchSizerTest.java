@@ -0,0 +1,49 @@
+package com.example.etl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptiveBatchSizerTest {
+
+	private static final long FAST = Duration.ofMillis(5).toNanos();
+	private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+	@Test
+	void growsWhileFullBatchesAreFast() {
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 200, Duration.ofMillis(100));
+
+		sizer.record(50, FAST);
+		sizer.record(100, FAST);
+
+		assertEquals(150, sizer.currentSize());
+	}
+
+	@Test
+	void doesNotGrowOnPartialBatches() {
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 200, Duration.ofMillis(100));
+
+		sizer.record(10, FAST);
+
+		assertEquals(50, sizer.currentSize());
+	}
+
+	@Test
+	void halvesOnSlowWritesDownToTheMinimum() {
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 400, Duration.ofMillis(100));
+		for (int i = 0; i < 7; i++) {
+			sizer.record(sizer.currentSize(), FAST);
+		}
+		assertEquals(400, sizer.currentSize());
+
+		sizer.record(400, SLOW);
+		assertEquals(200, sizer.currentSize());
+
+		sizer.record(200, SLOW);
+		sizer.record(100, SLOW);
+		sizer.record(50, SLOW);
+		assertEquals(50, sizer.currentSize());
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.etl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DatabasePressureTest {
+
+	private static final long FAST = Duration.ofMillis(5).toNanos();
+	private static final long SLOW = Duration.ofMillis(500).toNanos();
+	private static final long STALLED = Duration.ofSeconds(10).toNanos();
+
+	private final DatabasePressure pressure = new DatabasePressure(Duration.ofMillis(250), Duration.ofSeconds(2), 0.5, 3);
+
+	@Test
+	void staysNormalWhileWritesAreFast() {
+		for (int i = 0; i < 10; i++) {
+			pressure.recordWrite(FAST);
+		}
+
+		assertEquals(DatabasePressure.Level.NORMAL, pressure.update(null));
+	}
+
+	@Test
+	void throttlesOnSlowWrites() {
+		for (int i = 0; i < 10; i++) {
+			pressure.recordWrite(SLOW);
+		}
+
+		assertEquals(DatabasePressure.Level.THROTTLED, pressure.update(null));
+	}
+
+	@Test
+	void pausesWhenWritesStallOrFail() {
+		pressure.recordWrite(STALLED);
+		assertEquals(DatabasePressure.Level.PAUSED, pressure.update(null));
+
+		DatabasePressure failing = new DatabasePressure(Duration.ofMillis(250), Duration.ofSeconds(2), 0.5, 3);
+		for (int i = 0; i < 4; i++) {
+			failing.recordFailure();
+		}
+		assertEquals(DatabasePressure.Level.PAUSED, failing.update(null));
+	}
+
+	@Test
+	void resumesThrottledAfterConsecutiveFastProbes() {
+		pressure.recordWrite(STALLED);
+		pressure.update(null);
+
+		assertEquals(DatabasePressure.Level.PAUSED, pressure.update(FAST));
+		assertEquals(DatabasePressure.Level.PAUSED, pressure.update(null));
+		assertEquals(DatabasePressure.Level.PAUSED, pressure.update(FAST));
+		assertEquals(DatabasePressure.Level.PAUSED, pressure.update(FAST));
+		assertEquals(DatabasePressure.Level.THROTTLED, pressure.update(FAST));
+	}
+
+	@Test
+	void leavesThrottledOnceWritesAreFastAgain() {
+		for (int i = 0; i < 10; i++) {
+			pressure.recordWrite(SLOW);
+		}
+		pressure.update(null);
+
+		for (int i = 0; i < 20; i++) {
+			pressure.recordWrite(FAST);
+		}
+		assertEquals(DatabasePressure.Level.NORMAL, pressure.update(null));
+	}
+
+	@Test
+	void idleSinkDecaysToNormal() {
+		for (int i = 0; i < 10; i++) {
+			pressure.recordWrite(SLOW);
+		}
+		pressure.update(null);
+
+		DatabasePressure.Level level = pressure.level();
+		for (int i = 0; i < 20; i++) {
+			level = pressure.update(null);
+		}
+		assertEquals(DatabasePressure.Level.NORMAL, level);
+	}
+}
@@ -0,0 +1,32 @@
+package com.example.etl.service;
+
+import com.example.common.constant.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DlqServiceTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedSendPropagatesSoTheRecordIsRedelivered() {
+		KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+		when(kafkaTemplate.send(eq(Constants.ORDER_EVENTS_DLQ_TOPIC), eq("1"), any()))
+				.thenReturn(CompletableFuture.failedFuture(new TimeoutException("broker unavailable")));
+		DlqService dlqService = new DlqService(kafkaTemplate, new ObjectMapper());
+		ReflectionTestUtils.setField(dlqService, "sendTimeoutMs", 1000L);
+
+		assertThrows(IllegalStateException.class,
+				() -> dlqService.sendToDlq("order-events", "1", "{}", new IllegalArgumentException("bad event"), 3));
+	}
+}
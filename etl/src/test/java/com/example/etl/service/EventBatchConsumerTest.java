@@ -0,0 +1,74 @@
+package com.example.etl.service;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+import com.example.etl.repository.EventJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class EventBatchConsumerTest {
+
+	@Test
+	void keepsEventsOfOneOrderInOneLaneInOrder() {
+		ConsumerRecord<String, OrderEventDto> created = record(0, 7L, EventType.ORDER_CREATED);
+		ConsumerRecord<String, OrderEventDto> other = record(1, 8L, EventType.ORDER_CREATED);
+		ConsumerRecord<String, OrderEventDto> executed = record(2, 7L, EventType.ORDER_EXECUTED);
+
+		List<List<ConsumerRecord<String, OrderEventDto>>> lanes =
+				EventBatchConsumer.assignLanes(List.of(created, other, executed), 4);
+
+		assertEquals(4, lanes.size());
+		assertEquals(List.of(created, executed), lanes.get(Math.floorMod(Long.hashCode(7L), 4)));
+		assertEquals(List.of(other), lanes.get(Math.floorMod(Long.hashCode(8L), 4)));
+	}
+
+	@Test
+	void storesTheOffsetOfARoutedRecordAtTheEndOfItsChunk() {
+		EventJdbcRepository eventJdbcRepository = mock(EventJdbcRepository.class);
+		EventRetryRouter retryRouter = mock(EventRetryRouter.class);
+		SinkOffsets sinkOffsets = mock(SinkOffsets.class);
+		ConsumerRecord<String, OrderEventDto> first = record(0, 7L, EventType.ORDER_CREATED);
+		ConsumerRecord<String, OrderEventDto> poison = record(1, 8L, EventType.ORDER_CREATED);
+		doAnswer(invocation -> {
+			List<EventJdbcRepository.EventRow> rows = invocation.getArgument(0);
+			if (rows.stream().anyMatch(row -> row.sourceOffset() == 1)) {
+				throw new DataIntegrityViolationException("rejected");
+			}
+			return null;
+		}).when(eventJdbcRepository).insertAll(anyList());
+		EventBatchConsumer consumer = new EventBatchConsumer(eventJdbcRepository, retryRouter, sinkOffsets,
+				mock(SinkBackpressure.class), mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+				50, 1000, Duration.ofMillis(100), 1, 1, false);
+
+		try {
+			consumer.handleOrderEvents(List.of(first, poison));
+		} finally {
+			consumer.destroy();
+		}
+
+		verify(retryRouter).retryOrDeadLetter(eq(poison), any());
+		verify(sinkOffsets).store(argThat(records -> records.size() == 1 && records.contains(first)));
+		verify(sinkOffsets).store(argThat(records -> records.size() == 1 && records.contains(poison)));
+	}
+
+	private static ConsumerRecord<String, OrderEventDto> record(long offset, Long orderId, EventType eventType) {
+		OrderEventDto event = new OrderEventDto(orderId, "AAPL", eventType, "{}", Instant.now());
+		return new ConsumerRecord<>("order-events", 0, offset, orderId.toString(), event);
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.etl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventExportServiceTest {
+
+	@Test
+	void everyLineIsABareJsonObject() throws Exception {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:event-export;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("""
+				CREATE TABLE events (id BIGINT PRIMARY KEY, order_id BIGINT, event_type VARCHAR(50), event_data TEXT,
+				created_at TIMESTAMP(6))""");
+		jdbcTemplate.update("INSERT INTO events VALUES (1, 7, 'ORDER_CREATED', '{\"id\":7}', '2024-01-01 00:00:01')");
+		jdbcTemplate.update("INSERT INTO events VALUES (2, 7, 'ORDER_EXECUTED', 'not json', '2024-01-01 00:00:02')");
+		jdbcTemplate.update("INSERT INTO events VALUES (3, 8, 'ORDER_CREATED', '{\"id\":8}', '2024-01-01 00:00:03')");
+		EventExportService exportService = new EventExportService(dataSource, new ObjectMapper());
+		// Without the MySQL streaming fetch size, which H2 rejects
+		ReflectionTestUtils.setField(exportService, "jdbcTemplate", jdbcTemplate);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long exported = exportService.export(null, null, null, null, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+		assertEquals(3, exported);
+		assertEquals(4, lines.length);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(lines[i].startsWith("{\"id\":" + (i + 1) + ","), lines[i]);
+		}
+		assertTrue(lines[0].contains("\"eventData\":{\"id\":7}"), lines[0]);
+		assertTrue(lines[1].contains("\"eventData\":\"not json\""), lines[1]);
+		assertEquals("", lines[3]);
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.etl.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventRetryRouterTest {
+
+	@Test
+	void tierDelaysGrowExponentially() {
+		List<EventRetryRouter.RetryTier> tiers = EventRetryRouter.tiers(3, Duration.ofSeconds(1), 5.0);
+
+		assertEquals(List.of(
+				new EventRetryRouter.RetryTier("order-events-retry-1000", Duration.ofSeconds(1)),
+				new EventRetryRouter.RetryTier("order-events-retry-5000", Duration.ofSeconds(5)),
+				new EventRetryRouter.RetryTier("order-events-retry-25000", Duration.ofSeconds(25))), tiers);
+	}
+
+	@Test
+	void readsRetryCountHeader() {
+		ConsumerRecord<String, String> first = new ConsumerRecord<>("order-events", 0, 0L, "1", "{}");
+		ConsumerRecord<String, String> retried = new ConsumerRecord<>("order-events-retry-5000", 0, 0L, "1", "{}");
+		retried.headers().add(EventRetryRouter.RETRY_COUNT_HEADER, "2".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(0, EventRetryRouter.retryCount(first));
+		assertEquals(2, EventRetryRouter.retryCount(retried));
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.etl.service;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.etl.repository.ConsumerOffsetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SinkOffsetsTest {
+
+	private static final TopicPartition PARTITION = new TopicPartition("order-events", 0);
+
+	@Test
+	void seeksToStoredOffsetAndSkipsRecordsBelowIt() {
+		ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+		SinkOffsets sinkOffsets = sinkOffsets(500L, 800L);
+
+		sinkOffsets.onPartitionsAssigned(Map.of(PARTITION, 0L), callback);
+
+		verify(callback).seek("order-events", 0, 500L);
+		assertTrue(sinkOffsets.isDuplicate(record(499)));
+		assertFalse(sinkOffsets.isDuplicate(record(500)));
+	}
+
+	@Test
+	void discardsStoredOffsetBeyondTheLogEnd() {
+		ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+		// Stored before the topic was recreated, the new log only has 10 records
+		SinkOffsets sinkOffsets = sinkOffsets(500L, 10L);
+
+		sinkOffsets.onPartitionsAssigned(Map.of(PARTITION, 0L), callback);
+
+		verify(callback, never()).seek(anyString(), anyInt(), anyLong());
+		assertFalse(sinkOffsets.isDuplicate(record(3)));
+	}
+
+	@Test
+	void resumesFromTheNewLogAfterRestartsAcrossATopicRecreate() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:sink-offsets;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS consumer_offsets");
+		jdbcTemplate.execute("""
+				CREATE TABLE consumer_offsets (
+				    consumer_group VARCHAR(255) NOT NULL,
+				    topic VARCHAR(255) NOT NULL,
+				    partition_id INT NOT NULL,
+				    next_offset BIGINT NOT NULL,
+				    PRIMARY KEY (consumer_group, topic, partition_id))""");
+		ConsumerOffsetRepository repository = new ConsumerOffsetRepository(jdbcTemplate);
+		PlatformTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		// Stored before the topic was recreated
+		repository.save("etl", Map.of(PARTITION, 500L));
+
+		// First restart, the new log only has 10 records
+		SinkOffsets first = sinkOffsets(repository, transactionManager, 10L);
+		first.onPartitionsAssigned(Map.of(PARTITION, 0L), mock(ConsumerSeekCallback.class));
+		assertEquals(Map.of(), repository.find("etl", Set.of(PARTITION)));
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				first.store(LongStream.range(0, 10).mapToObj(SinkOffsetsTest::record).toList()));
+		assertEquals(Map.of(PARTITION, 10L), repository.find("etl", Set.of(PARTITION)));
+
+		// Second restart, once the new log has passed the stale offset
+		ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+		SinkOffsets second = sinkOffsets(repository, transactionManager, 600L);
+		second.onPartitionsAssigned(Map.of(PARTITION, 0L), callback);
+
+		verify(callback).seek("order-events", 0, 10L);
+		assertTrue(second.isDuplicate(record(5)));
+		assertFalse(second.isDuplicate(record(11)));
+	}
+
+	@Test
+	void keepsOffsetsAtTheLogEnd() {
+		Map<TopicPartition, Long> stored = Map.of(PARTITION, 10L, new TopicPartition("order-events", 1), 11L);
+
+		Map<TopicPartition, Long> valid = LogEndOffsets.withinLog("etl", stored,
+				Map.of(PARTITION, 10L, new TopicPartition("order-events", 1), 10L));
+
+		assertEquals(Map.of(PARTITION, 10L), valid);
+	}
+
+	private static SinkOffsets sinkOffsets(long storedOffset, long logEnd) {
+		ConsumerOffsetRepository repository = mock(ConsumerOffsetRepository.class);
+		when(repository.find("etl", Set.of(PARTITION))).thenReturn(Map.of(PARTITION, storedOffset));
+		return sinkOffsets(repository, mock(PlatformTransactionManager.class), logEnd);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static SinkOffsets sinkOffsets(ConsumerOffsetRepository repository, PlatformTransactionManager transactionManager,
+										   long logEnd) {
+		ConsumerFactory<String, OrderEventDto> consumerFactory = mock(ConsumerFactory.class);
+		Consumer<String, OrderEventDto> consumer = mock(Consumer.class);
+		when(consumerFactory.createConsumer()).thenReturn(consumer);
+		when(consumer.endOffsets(Set.of(PARTITION))).thenReturn(Map.of(PARTITION, logEnd));
+		return new SinkOffsets(repository, new LogEndOffsets(consumerFactory, repository, transactionManager),
+				new SimpleMeterRegistry(), "etl");
+	}
+
+	private static ConsumerRecord<String, String> record(long offset) {
+		return new ConsumerRecord<>("order-events", 0, offset, "1", "{}");
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.etl.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class StackTraceFingerprintTest {
+
+	private static final String TRACE = """
+			org.springframework.dao.DataIntegrityViolationException: Column 'event_data' cannot be null for order %d
+				at com.example.etl.repository.EventJdbcRepository.insertAll(EventJdbcRepository.java:27)
+				at com.example.etl.service.EventBatchConsumer$$Lambda/0x%x.accept(Unknown Source)
+			Caused by: java.sql.SQLIntegrityConstraintViolationException: Column 'event_data' cannot be null for order %d
+				at com.mysql.cj.jdbc.ClientPreparedStatement.executeBatch(ClientPreparedStatement.java:800)
+				... 12 more
+			""";
+
+	@Test
+	void ignoresMessagesAndGeneratedAddresses() {
+		String first = TRACE.formatted(1, 0x7f01, 1);
+		String second = TRACE.formatted(2, 0x7f99, 2);
+
+		assertEquals(StackTraceFingerprint.of(first), StackTraceFingerprint.of(second));
+	}
+
+	@Test
+	void distinguishesDifferentFrames() {
+		String first = TRACE.formatted(1, 0x7f01, 1);
+		String other = first.replace("EventJdbcRepository.java:27", "EventJdbcRepository.java:28");
+
+		assertNotEquals(StackTraceFingerprint.of(first), StackTraceFingerprint.of(other));
+	}
+
+	@Test
+	void takesErrorClassFromFirstLine() {
+		assertEquals("org.springframework.dao.DataIntegrityViolationException",
+				StackTraceFingerprint.errorClass(TRACE.formatted(1, 0x7f01, 1)));
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.etl.service.archive;
+
+import com.example.common.enums.EventType;
+import com.example.etl.repository.EventPartitionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class EventArchiveTest {
+
+	private static final String TABLE = "events_archive_p20240301_1709337600000";
+	private static final Instant AT = Instant.parse("2024-03-01T12:00:00Z");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void segmentIsNamedAfterTheDetachedTable() throws IOException {
+		EventPartitionRepository repository = mock(EventPartitionRepository.class);
+		doAnswer(invocation -> {
+			EventPartitionRepository.RowConsumer rows = invocation.getArgument(1);
+			for (long id = 1; id <= 3; id++) {
+				rows.accept(id, id, EventType.ORDER_CREATED, "{}", AT);
+			}
+			return null;
+		}).when(repository).streamDetached(eq(TABLE), any());
+		EventArchive archive = new EventArchive(repository, dir, 2);
+
+		assertEquals(3, archive.archive(TABLE));
+
+		assertTrue(archive.contains(TABLE));
+		assertEquals(3, archive.archivedRows(TABLE));
+		assertTrue(Files.exists(dir.resolve("events-p20240301_1709337600000.seg")));
+		assertEquals(3, archive.find(null, null, null, 10).size());
+		try (Stream<Path> files = Files.list(dir)) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void archivedBeforeIsTheEndOfTheNewestArchivedPartition() throws IOException {
+		EventPartitionRepository repository = mock(EventPartitionRepository.class);
+		doAnswer(invocation -> {
+			EventPartitionRepository.RowConsumer rows = invocation.getArgument(1);
+			rows.accept(1, 1, EventType.ORDER_CREATED, "{}", AT);
+			return null;
+		}).when(repository).streamDetached(any(), any());
+		EventArchive archive = new EventArchive(repository, dir, 2);
+
+		assertNull(archive.archivedBefore());
+		archive.archive("events_archive_p20240302_1709424000000");
+		archive.archive(TABLE);
+
+		assertEquals(Instant.parse("2024-03-03T00:00:00Z"), archive.archivedBefore());
+		// Segments are found again on startup
+		assertEquals(Instant.parse("2024-03-03T00:00:00Z"), new EventArchive(repository, dir, 2).archivedBefore());
+	}
+
+	@Test
+	void emptyTableLeavesNoSegment() throws IOException {
+		EventArchive archive = new EventArchive(mock(EventPartitionRepository.class), dir, 2);
+
+		assertEquals(0, archive.archive(TABLE));
+
+		assertFalse(archive.contains(TABLE));
+		try (Stream<Path> files = Files.list(dir)) {
+			assertEquals(0, files.count());
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.etl.service.archive;
+
+import com.example.common.enums.EventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventSegmentTest {
+
+	private static final Instant DAY = Instant.parse("2024-03-01T00:00:00Z");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void findsEventsByOrderIdAcrossBlocks() throws IOException {
+		EventSegment segment = write(10, 4);
+
+		List<ArchivedEvent> found = new ArrayList<>();
+		segment.find(7L, null, null, 100, found);
+
+		assertEquals(40, segment.rows());
+		assertEquals(4, found.size());
+		assertEquals(List.of(EventType.ORDER_CREATED, EventType.ORDER_EXECUTED, EventType.ORDER_CREATED, EventType.ORDER_EXECUTED),
+				found.stream().map(ArchivedEvent::eventType).toList());
+		assertEquals("{\"orderId\":7}", found.get(0).eventData());
+	}
+
+	@Test
+	void findsEventsByTimeRange() throws IOException {
+		EventSegment segment = write(10, 4);
+
+		List<ArchivedEvent> found = new ArrayList<>();
+		segment.find(null, DAY.plusSeconds(2), DAY.plusSeconds(3), 100, found);
+
+		assertEquals(10, found.size());
+		found.forEach(event -> assertEquals(DAY.plusSeconds(2).plusNanos(1_000), event.createdAt()));
+	}
+
+	private EventSegment write(int orders, int eventsPerOrder) throws IOException {
+		Path path = dir.resolve("events-p20240301.seg");
+		long id = 0;
+		try (OutputStream out = Files.newOutputStream(path);
+			 EventSegment.Writer writer = new EventSegment.Writer(out, 3)) {
+			for (long orderId = 1; orderId <= orders; orderId++) {
+				for (int i = 0; i < eventsPerOrder; i++) {
+					EventType type = i % 2 == 0 ? EventType.ORDER_CREATED : EventType.ORDER_EXECUTED;
+					writer.append(++id, orderId, type, "{\"orderId\":" + orderId + "}", DAY.plusSeconds(i).plusNanos(1_000));
+				}
+			}
+		}
+		return EventSegment.open(path);
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.etl.service.projection;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProjectedOrderTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+	private static final Instant AT = Instant.parse("2024-01-01T00:00:00Z");
+
+	@Test
+	void matchingEngineFillsAccumulate() throws Exception {
+		ProjectedOrder created = apply(null, EventType.ORDER_CREATED,
+				"{\"id\":1,\"symbol\":\"FPT\",\"quantity\":10,\"price\":50.5,\"status\":\"PENDING\",\"side\":\"BUY\"}");
+		ProjectedOrder partial = apply(created, EventType.ORDER_EXECUTED,
+				"{\"orderId\":1,\"executionPrice\":50,\"executionQuantity\":4,\"quantity\":10,\"filledQuantity\":4,\"status\":\"PENDING\"}");
+		ProjectedOrder filled = apply(partial, EventType.ORDER_EXECUTED,
+				"{\"orderId\":1,\"executionPrice\":50.5,\"executionQuantity\":6,\"quantity\":10,\"filledQuantity\":10,\"status\":\"EXECUTED\"}");
+
+		assertEquals(OrderSide.BUY, created.side());
+		assertEquals(OrderStatus.PENDING, partial.status());
+		assertEquals(0, new BigDecimal("6").compareTo(partial.openQuantity()));
+		assertEquals(OrderStatus.EXECUTED, filled.status());
+		assertEquals(0, new BigDecimal("10").compareTo(filled.filledQuantity()));
+		assertEquals(0, new BigDecimal("503").compareTo(filled.filledNotional()));
+		assertEquals(0, BigDecimal.ZERO.compareTo(filled.openQuantity()));
+	}
+
+	@Test
+	void simulatedExecutionFillsTheRestAtTheOrderPrice() throws Exception {
+		ProjectedOrder created = apply(null, EventType.ORDER_CREATED,
+				"{\"id\":1,\"symbol\":\"FPT\",\"quantity\":10,\"price\":2.5,\"status\":\"PENDING\",\"side\":\"SELL\"}");
+		ProjectedOrder executed = apply(created, EventType.ORDER_EXECUTED,
+				"{\"id\":1,\"symbol\":\"FPT\",\"quantity\":10,\"price\":2.5,\"status\":\"EXECUTED\",\"side\":\"SELL\"}");
+
+		assertEquals(OrderStatus.EXECUTED, executed.status());
+		assertEquals(0, new BigDecimal("10").compareTo(executed.filledQuantity()));
+		assertEquals(0, new BigDecimal("25").compareTo(executed.filledNotional()));
+	}
+
+	@Test
+	void fillOfAnUnknownOrderStartsWithoutPrice() throws Exception {
+		ProjectedOrder order = apply(null, EventType.ORDER_EXECUTED,
+				"{\"orderId\":1,\"side\":\"BUY\",\"executionPrice\":3,\"executionQuantity\":2,\"quantity\":5,\"filledQuantity\":2,\"status\":\"PENDING\"}");
+
+		assertNull(order.price());
+		assertEquals(0, new BigDecimal("6").compareTo(order.filledNotional()));
+		assertEquals(0, new BigDecimal("3").compareTo(order.openQuantity()));
+	}
+
+	@Test
+	void cancellationKeepsFills() throws Exception {
+		ProjectedOrder partial = apply(null, EventType.ORDER_EXECUTED,
+				"{\"orderId\":1,\"executionPrice\":3,\"executionQuantity\":2,\"quantity\":5,\"filledQuantity\":2,\"status\":\"PENDING\"}");
+		ProjectedOrder cancelled = apply(partial, EventType.ORDER_CANCELLED,
+				"{\"id\":1,\"symbol\":\"FPT\",\"quantity\":5,\"price\":3,\"filledQuantity\":2,\"status\":\"CANCELLED\"}");
+
+		assertEquals(OrderStatus.CANCELLED, cancelled.status());
+		assertEquals(0, new BigDecimal("2").compareTo(cancelled.filledQuantity()));
+		assertEquals(0, BigDecimal.ZERO.compareTo(cancelled.openQuantity()));
+	}
+
+	@Test
+	void symbolTotalsFollowOrderChanges() throws Exception {
+		ProjectedOrder created = apply(null, EventType.ORDER_CREATED,
+				"{\"id\":1,\"symbol\":\"FPT\",\"quantity\":10,\"price\":2,\"status\":\"PENDING\",\"side\":\"BUY\"}");
+		ProjectedOrder executed = apply(created, EventType.ORDER_EXECUTED,
+				"{\"id\":1,\"symbol\":\"FPT\",\"quantity\":10,\"price\":2,\"status\":\"EXECUTED\",\"side\":\"BUY\"}");
+
+		SymbolTotals totals = SymbolTotals.of(created).plus(SymbolTotals.of(created));
+		totals = totals.minus(created).plus(SymbolTotals.of(executed));
+
+		assertEquals(2, totals.orders());
+		assertEquals(1, totals.openOrders());
+		assertEquals(0, new BigDecimal("10").compareTo(totals.openQuantity()));
+		assertEquals(0, new BigDecimal("20").compareTo(totals.filledNotional()));
+		assertNull(SymbolTotals.of(created).minus(created));
+	}
+
+	private static ProjectedOrder apply(ProjectedOrder current, EventType type, String json) throws Exception {
+		JsonNode data = MAPPER.readTree(json);
+		return ProjectedOrder.apply(current, new OrderEventDto(1L, "FPT", type, json, AT), data, 0, AT);
+	}
+}
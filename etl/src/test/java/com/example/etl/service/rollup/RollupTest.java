@@ -0,0 +1,83 @@
+package com.example.etl.service.rollup;
+
+import com.example.common.dto.OrderEventDto;
+import com.example.common.enums.EventType;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RollupTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+	private static final Instant AT = Instant.parse("2024-01-01T09:30:15.250Z");
+
+	@Test
+	void windowsAlignToTheirResolution() {
+		assertEquals(Instant.parse("2024-01-01T09:30:15Z"), RollupResolution.SECOND.windowStart(AT));
+		assertEquals(Instant.parse("2024-01-01T09:30:00Z"), RollupResolution.MINUTE.windowStart(AT));
+		assertEquals(Instant.parse("2024-01-01T09:00:00Z"), RollupResolution.HOUR.windowStart(AT));
+	}
+
+	@Test
+	void mergeIsIndependentOfOrder() {
+		Rollup first = rollup("10", "2", AT);
+		Rollup high = rollup("12", "1", AT.plusSeconds(10));
+		Rollup last = rollup("11", "3", AT.plusSeconds(20));
+
+		Rollup inOrder = first.merge(high).merge(last);
+		Rollup reversed = last.merge(high).merge(first);
+
+		assertEquals(inOrder, reversed);
+		assertEquals(3, inOrder.count());
+		assertEquals(0, new BigDecimal("6").compareTo(inOrder.quantity()));
+		assertEquals(0, new BigDecimal("65").compareTo(inOrder.notional()));
+		assertEquals(0, new BigDecimal("10").compareTo(inOrder.open()));
+		assertEquals(0, new BigDecimal("12").compareTo(inOrder.high()));
+		assertEquals(0, new BigDecimal("10").compareTo(inOrder.low()));
+		assertEquals(0, new BigDecimal("11").compareTo(inOrder.close()));
+	}
+
+	@Test
+	void matchingEngineTradesCountOnTheBuySideOnly() throws Exception {
+		Execution buy = execution("{\"orderId\":1,\"side\":\"BUY\",\"executionPrice\":50.5,\"executionQuantity\":4,"
+				+ "\"executedAt\":\"2024-01-01T09:30:00Z\"}");
+		Execution sell = execution("{\"orderId\":2,\"side\":\"SELL\",\"executionPrice\":50.5,\"executionQuantity\":4,"
+				+ "\"executedAt\":\"2024-01-01T09:30:00Z\"}");
+
+		assertEquals(0, new BigDecimal("50.5").compareTo(buy.price()));
+		assertEquals(Instant.parse("2024-01-01T09:30:00Z"), buy.executedAt());
+		assertNull(sell);
+	}
+
+	@Test
+	void executionTimeIsReadFromEpochSeconds() throws Exception {
+		Execution buy = execution("{\"orderId\":1,\"side\":\"BUY\",\"executionPrice\":3,\"executionQuantity\":1,"
+				+ "\"executedAt\":1704101415.250000000}");
+
+		assertEquals(AT, buy.executedAt());
+	}
+
+	@Test
+	void simulatedExecutionCountsTheWholeOrderAtTheEventTime() throws Exception {
+		Execution execution = execution("{\"id\":1,\"symbol\":\"FPT\",\"quantity\":10,\"price\":2.5,\"status\":\"EXECUTED\",\"side\":\"SELL\"}");
+
+		assertEquals(0, new BigDecimal("10").compareTo(execution.quantity()));
+		assertEquals(0, new BigDecimal("2.5").compareTo(execution.price()));
+		assertEquals(AT, execution.executedAt());
+	}
+
+	private static Rollup rollup(String price, String quantity, Instant at) {
+		return Rollup.of(RollupResolution.MINUTE, new Execution("FPT", new BigDecimal(price), new BigDecimal(quantity), at));
+	}
+
+	private static Execution execution(String json) throws Exception {
+		OrderEventDto event = new OrderEventDto(1L, "FPT", EventType.ORDER_EXECUTED, json, AT);
+		return Execution.from(event, MAPPER.readTree(json), AT);
+	}
+}
@@ -3,9 +3,11 @@ package com.example.handler;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EntityScan("*")
+@EnableScheduling
 public class HandlerApplication {
 
     public static void main(String[] args) {
@@ -2,8 +2,10 @@ package com.example.handler.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
 
 @Configuration
 public class KafkaConfig {
@@ -14,4 +16,30 @@ public class KafkaConfig {
         mapper.registerModule(new JavaTimeModule());
         return mapper;
     }
+
+    @Bean
+    public PartitionFinder partitionFinder(ConsumerFactory<?, ?> consumerFactory) {
+        return new PartitionFinder(consumerFactory);
+    }
+
+    /**
+     * Partitions of a topic, for listeners that assign themselves all of them instead of joining a
+     * consumer group.
+     */
+    public static class PartitionFinder {
+
+        private final ConsumerFactory<?, ?> consumerFactory;
+
+        public PartitionFinder(ConsumerFactory<?, ?> consumerFactory) {
+            this.consumerFactory = consumerFactory;
+        }
+
+        public String[] partitions(String topic) {
+            try (Consumer<?, ?> consumer = consumerFactory.createConsumer()) {
+                return consumer.partitionsFor(topic).stream()
+                        .map(partition -> String.valueOf(partition.partition()))
+                        .toArray(String[]::new);
+            }
+        }
+    }
 }
@@ -1,8 +1,14 @@
 package com.example.handler.config;
 
+import com.example.handler.security.BearerTokenAuthenticationFilter;
+import com.example.handler.security.CachingAuthenticationProvider;
+import com.example.handler.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -14,11 +20,20 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Value("${handler.security.basic-cache.ttl:5m}")
+    private Duration basicCacheTtl;
+
+    @Value("${handler.security.basic-cache.maximum-size:10000}")
+    private long basicCacheMaximumSize;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -35,13 +50,23 @@ public class SecurityConfig {
         return new InMemoryUserDetailsManager(admin);
     }
 
+    @Bean
+    public AuthenticationProvider authenticationProvider() {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(userDetailsService());
+        daoProvider.setPasswordEncoder(passwordEncoder());
+        if (basicCacheTtl.isZero()) {
+            return daoProvider;
+        }
+        return new CachingAuthenticationProvider(daoProvider, basicCacheTtl, basicCacheMaximumSize);
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -50,8 +75,9 @@ public class SecurityConfig {
                 .requestMatchers("/actuator/health").permitAll()
                 .anyRequest().authenticated()
             )
+            .addFilterBefore(new BearerTokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
             .httpBasic(basic -> {});
 
         return http.build();
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.handler.controller;
 
 import com.example.handler.model.dto.LoginRequest;
 import com.example.handler.model.dto.LoginResponse;
+import com.example.handler.security.TokenService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
@@ -35,33 +37,24 @@ public class AuthController {
 
             if (authentication.isAuthenticated()) {
                 log.info("Login successful for username: {}", loginRequest.getUsername());
+                TokenService.IssuedToken token = tokenService.issue(authentication.getName(), authentication.getAuthorities());
                 return ResponseEntity.ok(new LoginResponse(
                     "Login successful",
                     loginRequest.getUsername(),
-                    true
+                    true,
+                    token.token(),
+                    token.expiresAt()
                 ));
             } else {
                 log.warn("Login failed for username: {}", loginRequest.getUsername());
-                return ResponseEntity.status(401).body(new LoginResponse(
-                    "Login failed",
-                    loginRequest.getUsername(),
-                    false
-                ));
+                return ResponseEntity.status(401).body(LoginResponse.failed("Login failed", loginRequest.getUsername()));
             }
         } catch (BadCredentialsException e) {
             log.warn("Invalid credentials for username: {}", loginRequest.getUsername());
-            return ResponseEntity.status(401).body(new LoginResponse(
-                "Invalid username or password",
-                loginRequest.getUsername(),
-                false
-            ));
+            return ResponseEntity.status(401).body(LoginResponse.failed("Invalid username or password", loginRequest.getUsername()));
         } catch (Exception e) {
             log.error("Login error for username: {}", loginRequest.getUsername(), e);
-            return ResponseEntity.status(500).body(new LoginResponse(
-                "Internal server error",
-                loginRequest.getUsername(),
-                false
-            ));
+            return ResponseEntity.status(500).body(LoginResponse.failed("Internal server error", loginRequest.getUsername()));
         }
     }
 }
\ No newline at end of file
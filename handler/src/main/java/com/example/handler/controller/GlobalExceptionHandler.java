@@ -1,6 +1,9 @@
 package com.example.handler.controller;
 
+import com.example.common.exception.ConcurrentOrderUpdateException;
+import com.example.common.exception.IdempotencyKeyReusedException;
 import com.example.common.exception.InvalidOrderStateException;
+import com.example.common.exception.InvalidRequestException;
 import com.example.common.exception.OrderNotFoundException;
 import com.example.common.exception.OrderProcessingException;
 import lombok.extern.slf4j.Slf4j;
@@ -45,6 +48,42 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(InvalidRequestException ex) {
+        log.error("Invalid request: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Request",
+                ex.getMessage(),
+                Instant.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ConcurrentOrderUpdateException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentOrderUpdateException(ConcurrentOrderUpdateException ex) {
+        log.warn("Concurrent order update: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Concurrent Update",
+                ex.getMessage(),
+                Instant.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        log.error("Idempotency key reused: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "Idempotency Key Reused",
+                ex.getMessage(),
+                Instant.now()
+        );
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
     @ExceptionHandler(OrderProcessingException.class)
     public ResponseEntity<ErrorResponse> handleOrderProcessingException(OrderProcessingException ex) {
         log.error("Order processing error: {}", ex.getMessage(), ex);
@@ -1,19 +1,31 @@
 package com.example.handler.controller;
 
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.handler.model.dto.CreateOrderBatchRequest;
 import com.example.handler.model.dto.CreateOrderRequest;
+import com.example.handler.model.dto.ExecutionStats;
+import com.example.handler.model.dto.OrderFilter;
+import com.example.handler.model.dto.OrderPageResponse;
 import com.example.handler.model.dto.OrderResponse;
+import com.example.handler.service.ExecutionEngine;
+import com.example.handler.service.IdempotencyService;
+import com.example.handler.service.OrderExportService;
 import com.example.handler.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/orders")
@@ -21,23 +33,79 @@ import java.util.List;
 @Slf4j
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final OrderService orderService;
+    private final ExecutionEngine executionEngine;
+    private final IdempotencyService idempotencyService;
+    private final OrderExportService orderExportService;
 
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("Received create order request: {}", request);
-        OrderResponse response = orderService.createOrder(request);
+        if (idempotencyKey == null) {
+            OrderResponse response = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        IdempotencyService.Result result = idempotencyService.createOrder(idempotencyKey, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderResponse>> createOrders(@Valid @RequestBody CreateOrderBatchRequest request) {
+        log.info("Received create order batch request: size={}", request.getOrders().size());
+        List<OrderResponse> response = orderService.createOrders(request.getOrders());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping
-    public ResponseEntity<Page<OrderResponse>> getAllOrders(
-            @PageableDefault(size = 20) Pageable pageable) {
+    public ResponseEntity<OrderPageResponse> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) OrderSide side,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         log.debug("Received get all orders request");
-        Page<OrderResponse> orders = orderService.getAllOrders(pageable);
+        OrderPageResponse orders = orderService.getOrders(new OrderFilter(symbol, status, side), cursor, size, includeTotal);
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Streams all matching orders as NDJSON, gzip-encoded when the client accepts it.
+     * Written straight to the servlet response, so the export is not bound by the async request timeout.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportOrders(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) OrderSide side,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        log.info("Received export orders request: from={}, to={}, symbol={}, status={}, side={}", from, to, symbol, status, side);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.ndjson\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE)
+                : response.getOutputStream()) {
+            orderExportService.export(new OrderFilter(symbol, status, side), from, to, out);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
         log.debug("Received get order by id request: {}", id);
@@ -58,4 +126,10 @@ public class OrderController {
         List<OrderResponse> executedOrders = orderService.simulateExecution();
         return ResponseEntity.ok(executedOrders);
     }
+
+    @GetMapping("/execution-stats")
+    public ResponseEntity<ExecutionStats> getExecutionStats() {
+        log.debug("Received execution stats request");
+        return ResponseEntity.ok(executionEngine.getStats());
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.handler.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for submitting many orders in a single call
+ */
+@Data
+public class CreateOrderBatchRequest {
+    public static final int MAX_ORDERS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_ORDERS)
+    private List<@Valid CreateOrderRequest> orders;
+}
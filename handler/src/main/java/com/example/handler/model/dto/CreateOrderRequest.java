@@ -1,6 +1,11 @@
 package com.example.handler.model.dto;
 
 import com.example.common.enums.OrderSide;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -10,8 +15,20 @@ import java.math.BigDecimal;
  */
 @Data
 public class CreateOrderRequest {
+    @NotBlank
+    @Size(max = 10)
     private String symbol;
+
+    @NotNull
+    @Positive
+    @Digits(integer = 10, fraction = 8)
     private BigDecimal quantity;
+
+    @NotNull
+    @Positive
+    @Digits(integer = 10, fraction = 8)
     private BigDecimal price;
+
+    @NotNull
     private OrderSide side;
 }
@@ -0,0 +1,29 @@
+package com.example.handler.model.dto;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Event data of an ORDER_EXECUTED event produced by the matching engine, one per side of a trade
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionReport {
+    private Long orderId;
+    private Long counterOrderId;
+    private String symbol;
+    private OrderSide side;
+    private BigDecimal executionPrice;
+    private BigDecimal executionQuantity;
+    private BigDecimal quantity;
+    private BigDecimal filledQuantity;
+    private OrderStatus status;
+    private Instant executedAt;
+}
@@ -0,0 +1,18 @@
+package com.example.handler.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO for background execution engine statistics
+ */
+@Data
+@AllArgsConstructor
+public class ExecutionStats {
+    private boolean running;
+    private int workerThreads;
+    private int chunkSize;
+    private long executedOrders;
+    private long failedChunks;
+    private double ordersPerSecond;
+}
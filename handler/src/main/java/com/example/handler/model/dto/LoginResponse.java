@@ -3,10 +3,18 @@ package com.example.handler.model.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
 @AllArgsConstructor
 public class LoginResponse {
     private String message;
     private String username;
     private boolean success;
+    private String token;
+    private Instant expiresAt;
+
+    public static LoginResponse failed(String message, String username) {
+        return new LoginResponse(message, username, false, null, null);
+    }
 }
\ No newline at end of file
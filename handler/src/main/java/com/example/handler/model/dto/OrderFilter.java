@@ -0,0 +1,10 @@
+package com.example.handler.model.dto;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+
+/**
+ * Optional filters for listing orders, null means no restriction
+ */
+public record OrderFilter(String symbol, OrderStatus status, OrderSide side) {
+}
@@ -0,0 +1,18 @@
+package com.example.handler.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for one page of orders. {@code nextCursor} is null on the last page,
+ * {@code totalCount} is only filled when explicitly requested.
+ */
+@Data
+@AllArgsConstructor
+public class OrderPageResponse {
+    private List<OrderResponse> items;
+    private String nextCursor;
+    private Long totalCount;
+}
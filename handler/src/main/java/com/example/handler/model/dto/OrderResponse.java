@@ -2,6 +2,7 @@ package com.example.handler.model.dto;
 
 import com.example.common.enums.OrderStatus;
 import com.example.common.enums.OrderSide;
+import com.example.handler.model.entity.Order;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,7 +22,21 @@ public class OrderResponse {
     private String symbol;
     private BigDecimal quantity;
     private BigDecimal price;
+    private BigDecimal filledQuantity;
     private OrderStatus status;
     private OrderSide side;
     private Instant createdAt;
+
+    public static OrderResponse from(Order order) {
+        return new OrderResponse(
+                order.getId(),
+                order.getSymbol(),
+                order.getQuantity(),
+                order.getPrice(),
+                order.getFilledQuantity(),
+                order.getStatus(),
+                order.getSide(),
+                order.getCreatedAt()
+        );
+    }
 }
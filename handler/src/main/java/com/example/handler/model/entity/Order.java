@@ -22,8 +22,17 @@ import java.time.Instant;
 @AllArgsConstructor
 public class Order {
     
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+    @TableGenerator(
+            name = "order_id_generator",
+            table = "id_generators",
+            pkColumnName = "generator_name",
+            valueColumnName = "next_value",
+            pkColumnValue = "orders",
+            allocationSize = 100
+    )
     private Long id;
     
     @NotNull
@@ -40,6 +49,10 @@ public class Order {
     @Column(name = "price", nullable = false, precision = 19, scale = 8)
     private BigDecimal price;
     
+    @NotNull
+    @Column(name = "filled_quantity", nullable = false, precision = 19, scale = 8)
+    private BigDecimal filledQuantity = BigDecimal.ZERO;
+    
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
@@ -50,6 +63,11 @@ public class Order {
     @Column(name = "side", nullable = false, length = 10)
     private OrderSide side;
     
+    // Null until persisted, which is how Spring Data tells new orders apart
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
     
@@ -0,0 +1,53 @@
+package com.example.handler.model.entity;
+
+import com.example.common.enums.EventType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Order event waiting to be relayed to Kafka, written in the same transaction as the order change
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "outbox_event_id_generator")
+    @TableGenerator(
+            name = "outbox_event_id_generator",
+            table = "id_generators",
+            pkColumnName = "generator_name",
+            valueColumnName = "next_value",
+            pkColumnValue = "outbox_events",
+            allocationSize = 100
+    )
+    private Long id;
+
+    @NotNull
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @NotNull
+    @Column(name = "symbol", nullable = false, length = 10)
+    private String symbol;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+
+    @NotNull
+    @Column(name = "event_data", nullable = false, columnDefinition = "TEXT")
+    private String eventData;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,31 @@
+package com.example.handler.repository;
+
+import com.example.handler.model.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Plain INSERT instead of save(): save() on an assigned id selects first, and the unique key
+     * must be hit right away so a concurrent retry blocks on it and then fails as a duplicate.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, order_id, response_body, created_at) " +
+            "VALUES (:key, :requestHash, :orderId, :responseBody, :createdAt)", nativeQuery = true)
+    void insert(@Param("key") String key,
+                @Param("requestHash") String requestHash,
+                @Param("orderId") Long orderId,
+                @Param("responseBody") String responseBody,
+                @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -1,23 +1,75 @@
 package com.example.handler.repository;
 
 import com.example.handler.model.entity.Order;
+import com.example.common.enums.OrderSide;
 import com.example.common.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
     Page<Order> findBySymbol(String symbol, Pageable pageable);
 
     List<Order> findByStatus(OrderStatus status);
 
-    @Query("SELECT o FROM Order o WHERE o.status = :status ORDER BY RAND() LIMIT :limit")
-    List<Order> findRandomOrdersByStatus(@Param("status") OrderStatus status, @Param("limit") int limit);
+    /**
+     * Locks the next orders in the given status for the current transaction, skipping rows
+     * already claimed by other workers or handler instances. Served by idx_orders_status.
+     */
+    @Query(value = "SELECT * FROM orders WHERE status = :status ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Order> claimByStatus(@Param("status") String status, @Param("limit") int limit);
+
+    /**
+     * Moves an order between states only if nobody changed it since it was read. Returns 0 when the
+     * order moved on, so callers can re-read and retry instead of locking it up front.
+     * Clears the persistence context, so re-reads see the database.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1, o.updatedAt = :updatedAt " +
+            "WHERE o.id = :id AND o.version = :version AND o.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("version") Long version,
+                         @Param("from") OrderStatus from,
+                         @Param("to") OrderStatus to,
+                         @Param("updatedAt") Instant updatedAt);
+
+    @Query("SELECT o.symbol FROM Order o WHERE o.id = :id")
+    Optional<String> findSymbolById(@Param("id") Long id);
+
+    /**
+     * Streams orders in time priority without attaching them to the persistence context.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    Stream<RestingOrderView> findByStatusOrderByCreatedAtAscIdAsc(OrderStatus status);
+
+    interface RestingOrderView {
+        Long getId();
+
+        String getSymbol();
+
+        OrderSide getSide();
+
+        BigDecimal getPrice();
+
+        BigDecimal getQuantity();
+
+        BigDecimal getFilledQuantity();
+    }
 }
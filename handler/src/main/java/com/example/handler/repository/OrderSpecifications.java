@@ -0,0 +1,51 @@
+package com.example.handler.repository;
+
+import com.example.handler.model.dto.OrderCursor;
+import com.example.handler.model.dto.OrderFilter;
+import com.example.handler.model.entity.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query building blocks for listing orders. Filters line up with the
+ * (symbol|status|side, created_at) indexes on the orders table.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+        // Utility class
+    }
+
+    public static Specification<Order> matching(OrderFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(3);
+            if (filter.symbol() != null) {
+                predicates.add(cb.equal(root.get("symbol"), filter.symbol().toUpperCase()));
+            }
+            if (filter.status() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.status()));
+            }
+            if (filter.side() != null) {
+                predicates.add(cb.equal(root.get("side"), filter.side()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Orders strictly after the cursor in newest-first (created_at, id) order.
+     */
+    public static Specification<Order> after(OrderCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<Instant>get("createdAt"), cursor.createdAt()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), cursor.createdAt()),
+                        cb.lessThan(root.<Long>get("id"), cursor.id())
+                )
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.handler.repository;
+
+import com.example.handler.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events that no relay holds a live claim on, leaving out orders with claimed
+     * events so a relay on another instance never publishes later events of an order first.
+     * Deliberately not SKIP LOCKED: concurrent claims wait for each other, which takes milliseconds
+     * since claims commit before anything is sent.
+     */
+    @Query(value = """
+            SELECT * FROM outbox_events e
+            WHERE (e.claimed_until IS NULL OR e.claimed_until < NOW(6))
+              AND e.order_id NOT IN (SELECT c.order_id FROM outbox_events c WHERE c.claimed_until >= NOW(6))
+            ORDER BY e.created_at, e.id LIMIT :limit FOR UPDATE""", nativeQuery = true)
+    List<OutboxEvent> lockNextUnclaimed(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_events SET claimed_by = :relay, claimed_until = TIMESTAMPADD(MICROSECOND, :leaseMicros, NOW(6))
+            WHERE id IN (:ids)""", nativeQuery = true)
+    int claim(@Param("ids") List<Long> ids, @Param("relay") String relay, @Param("leaseMicros") long leaseMicros);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET claimed_by = NULL, claimed_until = NULL WHERE id IN (:ids) AND claimed_by = :relay",
+            nativeQuery = true)
+    int release(@Param("ids") List<Long> ids, @Param("relay") String relay);
+
+    /**
+     * Deletes events still claimed by {@code relay}; events whose claim expired and was taken over
+     * are left to the relay that holds them now.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE id IN (:ids) AND claimed_by = :relay", nativeQuery = true)
+    int deleteClaimed(@Param("ids") List<Long> ids, @Param("relay") String relay);
+}
@@ -1,43 +1,70 @@
 package com.example.handler.service;
 
-import com.example.common.constant.Constants;
-import com.example.common.dto.OrderEventDto;
 import com.example.common.enums.EventType;
+import com.example.handler.model.entity.Order;
+import com.example.handler.model.entity.OutboxEvent;
+import com.example.handler.repository.OutboxEventRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Records order events in the outbox as part of the caller's transaction.
+ * {@link OutboxRelay} ships them to Kafka once the transaction has committed.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishOrderEvent(Long orderId, String symbol, EventType eventType, Object eventData) {
         try {
-            String eventDataJson = objectMapper.writeValueAsString(eventData);
-
-            OrderEventDto orderEvent = new OrderEventDto(
-                orderId,
-                symbol,
-                eventType,
-                eventDataJson,
-                Instant.now()
-            );
-
-            kafkaTemplate.send(Constants.ORDER_EVENTS_TOPIC, orderId.toString(), orderEvent);
-            log.info("Published order event: orderId={}, eventType={}", orderId, eventType);
+            outboxEventRepository.save(toOutboxEvent(orderId, symbol, eventType, eventData, Instant.now()));
+            log.info("Queued order event: orderId={}, eventType={}", orderId, eventType);
 
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize event data for order {}: {}", orderId, e.getMessage(), e);
             throw new RuntimeException("Failed to publish order event", e);
         }
     }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishOrderEvents(EventType eventType, List<Order> orders) {
+        try {
+            Instant now = Instant.now();
+            List<OutboxEvent> events = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                events.add(toOutboxEvent(order.getId(), order.getSymbol(), eventType, order, now));
+            }
+            outboxEventRepository.saveAll(events);
+            log.info("Queued {} order events: eventType={}", orders.size(), eventType);
+
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize event data for order batch: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to publish order events", e);
+        }
+    }
+
+    private OutboxEvent toOutboxEvent(Long orderId, String symbol, EventType eventType, Object eventData, Instant createdAt)
+            throws JsonProcessingException {
+        OutboxEvent event = new OutboxEvent();
+        event.setOrderId(orderId);
+        event.setSymbol(symbol);
+        event.setEventType(eventType);
+        event.setEventData(objectMapper.writeValueAsString(eventData));
+        event.setCreatedAt(createdAt);
+        return event;
+    }
 }
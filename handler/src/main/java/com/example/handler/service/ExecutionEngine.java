@@ -0,0 +1,151 @@
+package com.example.handler.service;
+
+import com.example.handler.model.dto.ExecutionStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background workers that keep executing pending orders in chunks.
+ * Each chunk is claimed with SKIP LOCKED, so any number of workers on any number of
+ * handler instances can run side by side without executing an order twice.
+ */
+@Service
+@Slf4j
+public class ExecutionEngine implements SmartLifecycle {
+
+    private final OrderExecutor orderExecutor;
+    private final SimpleAsyncTaskExecutor workerExecutor = new SimpleAsyncTaskExecutor("execution-worker-");
+    private final LongAdder executedOrders = new LongAdder();
+    private final LongAdder failedChunks = new LongAdder();
+    private final List<CompletableFuture<?>> workers = new ArrayList<>();
+
+    private volatile boolean running;
+    private volatile double ordersPerSecond;
+    private long lastSampleCount;
+    private long lastSampleNanos = System.nanoTime();
+
+    @Value("${handler.execution.enabled:false}")
+    private boolean enabled;
+
+    @Value("${handler.execution.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${handler.execution.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${handler.execution.idle-backoff-ms:500}")
+    private long idleBackoffMs;
+
+    @Value("${handler.execution.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    public ExecutionEngine(OrderExecutor orderExecutor,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderExecutor = orderExecutor;
+        // Workers spend most of their time waiting on MySQL, which virtual threads make cheap
+        this.workerExecutor.setVirtualThreads(virtualThreads);
+    }
+
+    @Override
+    public void start() {
+        log.info("Starting execution engine: workerThreads={}, chunkSize={}", workerThreads, chunkSize);
+        running = true;
+        workers.clear();
+        for (int i = 0; i < workerThreads; i++) {
+            workers.add(workerExecutor.submitCompletable(this::runWorker));
+        }
+    }
+
+    /**
+     * Lets the workers finish the chunk they are executing, waiting at most
+     * {@code handler.execution.shutdown-timeout-ms}, so no chunk transaction is still running when
+     * the DataSource closes.
+     */
+    @Override
+    public void stop() {
+        log.info("Stopping execution engine");
+        running = false;
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).get(shutdownTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.warn("Execution workers still running after {} ms, stopping anyway", shutdownTimeoutMs);
+        } catch (Exception e) {
+            log.warn("Execution worker ended with an error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                int executed = orderExecutor.executePendingOrders(chunkSize).size();
+                executedOrders.add(executed);
+                if (executed < chunkSize) {
+                    // Queue is drained, no point in hammering the status index
+                    pause();
+                }
+            } catch (Exception e) {
+                failedChunks.increment();
+                log.error("Execution chunk failed, will retry: {}", e.getMessage(), e);
+                pause();
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(idleBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void sampleThroughput() {
+        long now = System.nanoTime();
+        long count = executedOrders.sum();
+        ordersPerSecond = (count - lastSampleCount) * 1_000_000_000.0 / (now - lastSampleNanos);
+        lastSampleCount = count;
+        lastSampleNanos = now;
+    }
+
+    public ExecutionStats getStats() {
+        return new ExecutionStats(
+                running,
+                workerThreads,
+                chunkSize,
+                executedOrders.sum(),
+                failedChunks.sum(),
+                ordersPerSecond
+        );
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.handler.service;
+
+import com.example.common.exception.IdempotencyKeyReusedException;
+import com.example.common.exception.InvalidRequestException;
+import com.example.common.exception.OrderProcessingException;
+import com.example.handler.model.dto.CreateOrderRequest;
+import com.example.handler.model.dto.OrderResponse;
+import com.example.handler.model.entity.IdempotencyKey;
+import com.example.handler.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Order creation keyed by a client supplied {@code Idempotency-Key}. The key and the response are
+ * stored in the same transaction as the order, so a retry either finds them or creates the order
+ * itself; a concurrent retry blocks on the key's unique index and then replays the winner's response.
+ * Recently used keys are answered from memory without touching the database.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, StoredResponse> cache;
+    private final Duration retention;
+
+    public IdempotencyService(OrderService orderService,
+                              IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${handler.idempotency.cache.maximum-size:100000}") long maximumSize,
+                              @Value("${handler.idempotency.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                              @Value("${handler.idempotency.retention:24h}") Duration retention) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.retention = retention;
+    }
+
+    public Result createOrder(String key, CreateOrderRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = requestHash(request);
+
+        Optional<OrderResponse> previous = find(key, requestHash);
+        if (previous.isPresent()) {
+            log.info("Replaying order for idempotency key: key={}, id={}", key, previous.get().getId());
+            return new Result(previous.get(), true);
+        }
+
+        OrderResponse response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                OrderResponse created = orderService.createOrder(request);
+                idempotencyKeyRepository.insert(key, requestHash, created.getId(), toJson(created), Instant.now());
+                return created;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race to a concurrent request with the same key, which has committed by now
+            OrderResponse winner = find(key, requestHash).orElseThrow(() -> e);
+            log.info("Replaying order for concurrent idempotency key: key={}, id={}", key, winner.getId());
+            return new Result(winner, true);
+        }
+
+        cache.put(key, new StoredResponse(requestHash, response));
+        return new Result(response, false);
+    }
+
+    @Scheduled(fixedDelayString = "${handler.idempotency.purge-interval-ms:60000}")
+    public void purgeExpiredKeys() {
+        try {
+            Instant cutoff = Instant.now().minus(retention);
+            int purged;
+            do {
+                purged = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteOlderThan(cutoff, PURGE_BATCH_SIZE));
+            } while (purged == PURGE_BATCH_SIZE);
+        } catch (Exception e) {
+            log.error("Failed to purge idempotency keys, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    private Optional<OrderResponse> find(String key, String requestHash) {
+        StoredResponse stored = cache.getIfPresent(key);
+        if (stored == null) {
+            Optional<IdempotencyKey> row = idempotencyKeyRepository.findById(key);
+            if (row.isEmpty()) {
+                return Optional.empty();
+            }
+            stored = new StoredResponse(row.get().getRequestHash(), fromJson(row.get().getResponseBody()));
+            cache.put(key, stored);
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return Optional.of(stored.response());
+    }
+
+    private String toJson(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new OrderProcessingException("Failed to serialize order response", e);
+        }
+    }
+
+    private OrderResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new OrderProcessingException("Failed to read stored order response", e);
+        }
+    }
+
+    /**
+     * Hash of the normalized request, so a key reused for a different order is rejected instead of replayed
+     */
+    static String requestHash(CreateOrderRequest request) {
+        String canonical = String.join("|",
+                request.getSymbol().toUpperCase(),
+                request.getQuantity().stripTrailingZeros().toPlainString(),
+                request.getPrice().stripTrailingZeros().toPlainString(),
+                request.getSide().name());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Result(OrderResponse response, boolean replayed) {}
+
+    private record StoredResponse(String requestHash, OrderResponse response) {}
+}
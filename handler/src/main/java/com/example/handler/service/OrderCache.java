@@ -0,0 +1,111 @@
+package com.example.handler.service;
+
+import com.example.handler.model.dto.OrderResponse;
+import com.example.handler.model.entity.Order;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of order responses. Entries are refreshed after commit on this
+ * instance's write path and invalidated by {@link OrderCacheInvalidator} for changes made elsewhere.
+ * Hit/miss/eviction counts are published as {@code cache.*} metrics with {@code cache=orders}.
+ * <p>
+ * Entries carry the order version and are only ever replaced by a version at least as new, so a
+ * database read that raced with a newer after-commit put cannot overwrite it. A read that raced with
+ * an invalidation is returned but not cached.
+ */
+@Component
+@Slf4j
+public class OrderCache {
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final Cache<Long, Entry> cache;
+    // Invalidations so far per stripe of order ids
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private record Entry(long version, OrderResponse response) {
+
+        static Entry of(Order order) {
+            return new Entry(order.getVersion() != null ? order.getVersion() : 0, OrderResponse.from(order));
+        }
+    }
+
+    public OrderCache(MeterRegistry meterRegistry,
+                      @Value("${handler.cache.orders.maximum-size:100000}") long maximumSize,
+                      @Value("${handler.cache.orders.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders");
+    }
+
+    public OrderResponse get(Long id, Function<Long, Order> loader) {
+        Entry cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.response();
+        }
+        int stripe = stripe(id);
+        long invalidationsBefore = invalidations.get(stripe);
+        // Loaded outside the map: a compute() would hold a synchronized bin lock across the
+        // database call and pin the carrier thread in virtual-thread mode
+        Entry loaded = Entry.of(loader.apply(id));
+        put(id, loaded);
+        // Checked after the put, so an invalidation either shows here or removes the entry itself
+        if (invalidations.get(stripe) != invalidationsBefore) {
+            cache.asMap().remove(id, loaded);
+        }
+        return loaded.response();
+    }
+
+    /**
+     * The cached order, without loading it; its version is the one it was cached at, so it may be
+     * behind the database.
+     */
+    public Optional<Order> peek(Long id) {
+        Entry cached = cache.getIfPresent(id);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        OrderResponse response = cached.response();
+        return Optional.of(new Order(response.getId(), response.getSymbol(), response.getQuantity(), response.getPrice(),
+                response.getFilledQuantity(), response.getStatus(), response.getSide(), cached.version(),
+                response.getCreatedAt(), null));
+    }
+
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    @TransactionalEventListener
+    public void onOrdersAccepted(OrdersAcceptedEvent event) {
+        event.orders().forEach(order -> put(order.getId(), Entry.of(order)));
+    }
+
+    @TransactionalEventListener
+    public void onOrdersUpdated(OrdersUpdatedEvent event) {
+        event.orders().forEach(order -> put(order.getId(), Entry.of(order)));
+    }
+
+    private void put(Long id, Entry entry) {
+        cache.asMap().merge(id, entry, (current, next) -> next.version() >= current.version() ? next : current);
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), INVALIDATION_STRIPES);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.handler.service;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Evicts cached orders when any handler instance publishes an event for them.
+ * Every instance assigns itself all partitions without a consumer group, so each one sees every
+ * event and restarts leave no groups behind on the broker. Events published while the instance
+ * was down are not needed, it starts with an empty cache, so it starts at the end of the topic.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCacheInvalidator implements ConsumerSeekAware {
+
+    private final OrderCache orderCache;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    @KafkaListener(topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+            topic = Constants.ORDER_EVENTS_TOPIC,
+            partitions = "#{@partitionFinder.partitions('" + Constants.ORDER_EVENTS_TOPIC + "')}"))
+    public void handleOrderEvent(OrderEventDto orderEvent) {
+        log.debug("Invalidating cached order: orderId={}, eventType={}", orderEvent.getOrderId(), orderEvent.getEventType());
+        orderCache.invalidate(orderEvent.getOrderId());
+    }
+}
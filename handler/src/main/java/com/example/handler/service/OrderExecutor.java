@@ -0,0 +1,62 @@
+package com.example.handler.service;
+
+import com.example.common.enums.EventType;
+import com.example.common.enums.OrderStatus;
+import com.example.common.exception.OrderProcessingException;
+import com.example.handler.model.entity.Order;
+import com.example.handler.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExecutor {
+
+    private final OrderRepository orderRepository;
+    private final EventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Claims up to {@code limit} pending orders and simulates their execution.
+     * Claimed rows stay locked until commit, so concurrent callers never execute the same order.
+     */
+    @Transactional
+    public List<Order> executePendingOrders(int limit) {
+        List<Order> claimedOrders = orderRepository.claimByStatus(OrderStatus.PENDING.name(), limit);
+
+        List<Order> executedOrders = claimedOrders.stream().map(order -> {
+            try {
+                // Simulate random execution (80% success rate)
+                boolean isSuccessful = ThreadLocalRandom.current().nextDouble() < 0.8;
+
+                if (isSuccessful) {
+                    order.setStatus(OrderStatus.EXECUTED);
+                    eventPublisher.publishOrderEvent(order.getId(), order.getSymbol(), EventType.ORDER_EXECUTED, order);
+                    log.info("Order executed successfully: id={}", order.getId());
+                } else {
+                    order.setStatus(OrderStatus.FAILED);
+                    eventPublisher.publishOrderEvent(order.getId(), order.getSymbol(), EventType.ORDER_FAILED, order);
+                    log.info("Order execution failed: id={}", order.getId());
+                }
+
+                return orderRepository.save(order);
+
+            } catch (Exception e) {
+                log.error("Failed to simulate execution for order {}: {}", order.getId(), e.getMessage(), e);
+                throw new OrderProcessingException("Failed to simulate order execution", e);
+            }
+        }).toList();
+
+        if (!executedOrders.isEmpty()) {
+            applicationEventPublisher.publishEvent(new OrdersUpdatedEvent(executedOrders));
+        }
+        return executedOrders;
+    }
+}
@@ -1,24 +1,30 @@
 package com.example.handler.service;
 
 import com.example.handler.model.dto.CreateOrderRequest;
+import com.example.handler.model.dto.OrderCursor;
+import com.example.handler.model.dto.OrderFilter;
+import com.example.handler.model.dto.OrderPageResponse;
 import com.example.handler.model.dto.OrderResponse;
 import com.example.common.exception.InvalidOrderStateException;
+import com.example.common.exception.InvalidRequestException;
 import com.example.common.exception.OrderNotFoundException;
 import com.example.common.exception.OrderProcessingException;
 import com.example.common.enums.EventType;
 import com.example.handler.model.entity.Order;
 import com.example.common.enums.OrderStatus;
 import com.example.handler.repository.OrderRepository;
+import com.example.handler.repository.OrderSpecifications;
+import com.example.handler.service.matching.MatchingEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
 import java.util.List;
-import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
@@ -27,7 +33,15 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final EventPublisher eventPublisher;
-    private final Random random = new Random();
+    private final OrderExecutor orderExecutor;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectProvider<MatchingEngine> matchingEngine;
+    private final OrderCache orderCache;
+    private final OrderTransitions orderTransitions;
+
+    private static final int SIMULATION_BATCH_SIZE = 5;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
 
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
@@ -35,20 +49,16 @@ public class OrderService {
                 request.getSymbol(), request.getQuantity(), request.getPrice(), request.getSide());
 
         try {
-            Order order = new Order();
-            order.setSymbol(request.getSymbol().toUpperCase());
-            order.setQuantity(request.getQuantity());
-            order.setPrice(request.getPrice());
-            order.setSide(request.getSide());
-            order.setStatus(OrderStatus.PENDING);
+            Order order = newPendingOrder(request);
 
             Order savedOrder = orderRepository.save(order);
 
             // Publish order created event
             eventPublisher.publishOrderEvent(savedOrder.getId(), savedOrder.getSymbol(), EventType.ORDER_CREATED, savedOrder);
+            applicationEventPublisher.publishEvent(new OrdersAcceptedEvent(List.of(savedOrder)));
 
             log.info("Order created successfully: id={}", savedOrder.getId());
-            return mapToResponse(savedOrder);
+            return OrderResponse.from(savedOrder);
 
         } catch (Exception e) {
             log.error("Failed to create order: {}", e.getMessage(), e);
@@ -56,85 +66,112 @@ public class OrderService {
         }
     }
 
-    public Page<OrderResponse> getAllOrders(Pageable pageable) {
-        log.debug("Fetching all orders with pagination: page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
-        return orderRepository.findAll(pageable).map(this::mapToResponse);
+    @Transactional
+    public List<OrderResponse> createOrders(List<CreateOrderRequest> requests) {
+        log.info("Creating order batch: size={}", requests.size());
+
+        try {
+            List<Order> orders = requests.stream().map(this::newPendingOrder).toList();
+
+            // Ids come from the pooled generator, so these inserts are flushed as JDBC batches
+            List<Order> savedOrders = orderRepository.saveAll(orders);
+
+            eventPublisher.publishOrderEvents(EventType.ORDER_CREATED, savedOrders);
+            applicationEventPublisher.publishEvent(new OrdersAcceptedEvent(savedOrders));
+
+            log.info("Order batch created successfully: size={}", savedOrders.size());
+            return savedOrders.stream().map(OrderResponse::from).toList();
+
+        } catch (Exception e) {
+            log.error("Failed to create order batch: {}", e.getMessage(), e);
+            throw new OrderProcessingException("Failed to create order batch: " + e.getMessage(), e);
+        }
+    }
+
+    public OrderPageResponse getOrders(OrderFilter filter, String cursor, int size, boolean includeTotal) {
+        log.debug("Fetching orders: filter={}, cursor={}, size={}, includeTotal={}", filter, cursor, size, includeTotal);
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Specification<Order> spec = OrderSpecifications.matching(filter);
+        if (cursor != null) {
+            spec = spec.and(OrderSpecifications.after(OrderCursor.decode(cursor)));
+        }
+
+        // One extra row tells whether there is a next page, no COUNT(*) needed
+        List<Order> orders = orderRepository.findBy(spec, query -> query.sortBy(NEWEST_FIRST).limit(size + 1).all());
+        boolean hasNext = orders.size() > size;
+        List<Order> page = hasNext ? orders.subList(0, size) : orders;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        Long totalCount = includeTotal ? orderRepository.count(OrderSpecifications.matching(filter)) : null;
+
+        return new OrderPageResponse(page.stream().map(OrderResponse::from).toList(), nextCursor, totalCount);
     }
 
     public OrderResponse getOrderById(Long id) {
         log.debug("Fetching order by id: {}", id);
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
-        return mapToResponse(order);
+        return orderCache.get(id, orderId -> orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId)));
     }
 
-    @Transactional
     public OrderResponse cancelOrder(Long id) {
         log.info("Cancelling order: id={}", id);
 
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
-
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new InvalidOrderStateException(id, order.getStatus(), "cancel");
+        MatchingEngine engine = matchingEngine.getIfAvailable();
+        boolean removedFromBook = false;
+        if (engine != null) {
+            String symbol = orderRepository.findSymbolById(id)
+                    .orElseThrow(() -> new OrderNotFoundException(id));
+            // Take the order off its book first so it cannot trade while being cancelled
+            removedFromBook = engine.cancel(id, symbol);
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setUpdatedAt(Instant.now());
-        Order savedOrder = orderRepository.save(order);
-
-        // Publish order cancelled event
-        eventPublisher.publishOrderEvent(savedOrder.getId(), savedOrder.getSymbol(), EventType.ORDER_CANCELLED, savedOrder);
+        Order cancelledOrder;
+        try {
+            cancelledOrder = orderTransitions.cancel(id);
+        } catch (RuntimeException e) {
+            if (removedFromBook) {
+                // The order is still open in the database, so it goes back on the book
+                engine.restore(id);
+            }
+            throw e;
+        }
 
         log.info("Order cancelled successfully: id={}", id);
-        return mapToResponse(savedOrder);
+        return OrderResponse.from(cancelledOrder);
     }
 
-    @Transactional
     public List<OrderResponse> simulateExecution() {
         log.info("Starting order execution simulation");
 
-        List<Order> pendingOrders = orderRepository.findRandomOrdersByStatus(OrderStatus.PENDING, 5);
+        if (matchingEngine.getIfAvailable() != null) {
+            throw new InvalidOrderStateException("Simulated execution is disabled while the matching engine is enabled");
+        }
+
+        List<Order> executedOrders = orderExecutor.executePendingOrders(SIMULATION_BATCH_SIZE);
 
-        if (pendingOrders.isEmpty()) {
+        if (executedOrders.isEmpty()) {
             log.info("No pending orders found for simulation");
             return List.of();
         }
 
-        return pendingOrders.stream().map(order -> {
-            try {
-                // Simulate random execution (80% success rate)
-                boolean isSuccessful = random.nextDouble() < 0.8;
-
-                if (isSuccessful) {
-                    order.setStatus(OrderStatus.EXECUTED);
-                    eventPublisher.publishOrderEvent(order.getId(), order.getSymbol(), EventType.ORDER_EXECUTED, order);
-                    log.info("Order executed successfully: id={}", order.getId());
-                } else {
-                    order.setStatus(OrderStatus.FAILED);
-                    eventPublisher.publishOrderEvent(order.getId(), order.getSymbol(), EventType.ORDER_FAILED, order);
-                    log.info("Order execution failed: id={}", order.getId());
-                }
-
-                Order savedOrder = orderRepository.save(order);
-                return mapToResponse(savedOrder);
-
-            } catch (Exception e) {
-                log.error("Failed to simulate execution for order {}: {}", order.getId(), e.getMessage(), e);
-                throw new OrderProcessingException("Failed to simulate order execution", e);
-            }
-        }).toList();
+        return executedOrders.stream().map(OrderResponse::from).toList();
     }
 
-    private OrderResponse mapToResponse(Order order) {
-        return new OrderResponse(
-                order.getId(),
-                order.getSymbol(),
-                order.getQuantity(),
-                order.getPrice(),
-                order.getStatus(),
-                order.getSide(),
-                order.getCreatedAt()
-        );
+    private Order newPendingOrder(CreateOrderRequest request) {
+        Order order = new Order();
+        order.setSymbol(request.getSymbol().toUpperCase());
+        order.setQuantity(request.getQuantity());
+        order.setPrice(request.getPrice());
+        order.setSide(request.getSide());
+        order.setStatus(OrderStatus.PENDING);
+        return order;
     }
 }
@@ -0,0 +1,127 @@
+package com.example.handler.service;
+
+import com.example.common.enums.EventType;
+import com.example.common.enums.OrderStatus;
+import com.example.common.exception.ConcurrentOrderUpdateException;
+import com.example.common.exception.InvalidOrderStateException;
+import com.example.common.exception.OrderNotFoundException;
+import com.example.handler.model.entity.Order;
+import com.example.handler.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Optimistic order state transitions. The order is moved with a conditional UPDATE on its status
+ * and the version it is expected at, without a lock. The expected version comes from the order
+ * cache when the order is cached, so the transition takes no SELECT; the order is only read when
+ * it is not cached or the UPDATE changed nothing, to tell a missing or no longer pending order
+ * from a conflict. A conflict is retried in a fresh transaction, since a repeatable-read snapshot
+ * would keep returning the old version. Conflicts are counted per transition as
+ * {@code orders.transition.conflicts}, exhausted retries as {@code orders.transition.failures}.
+ * <p>
+ * A cached version can be outdated without any writer racing the cancel: the cache only learns of
+ * changes made elsewhere once their events arrive. A miss on the cached version is therefore counted
+ * as {@code orders.transition.stale} instead and does not use up an attempt.
+ */
+@Service
+@Slf4j
+public class OrderTransitions {
+
+    private final OrderRepository orderRepository;
+    private final EventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderCache orderCache;
+    private final Counter cancelConflicts;
+    private final Counter cancelStale;
+    private final Counter cancelFailures;
+
+    @Value("${handler.orders.transition.max-attempts:3}")
+    private int maxAttempts;
+
+    public OrderTransitions(OrderRepository orderRepository,
+                            EventPublisher eventPublisher,
+                            ApplicationEventPublisher applicationEventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            OrderCache orderCache,
+                            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderCache = orderCache;
+        this.cancelConflicts = meterRegistry.counter("orders.transition.conflicts", "transition", "cancel");
+        this.cancelStale = meterRegistry.counter("orders.transition.stale", "transition", "cancel");
+        this.cancelFailures = meterRegistry.counter("orders.transition.failures", "transition", "cancel");
+    }
+
+    public Order cancel(Long id) {
+        Order expected = orderCache.peek(id).orElse(null);
+        if (expected != null) {
+            Order cached = expected;
+            Attempt result = transactionTemplate.execute(status -> tryCancel(id, cached));
+            if (result.transitioned() != null) {
+                return result.transitioned();
+            }
+            cancelStale.increment();
+            log.debug("Cached order version outdated while cancelling, retrying with the current one: id={}", id);
+            expected = result.current();
+        }
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Order from = expected;
+            Attempt result = transactionTemplate.execute(status -> tryCancel(id, from));
+            if (result.transitioned() != null) {
+                return result.transitioned();
+            }
+            cancelConflicts.increment();
+            log.debug("Order changed while cancelling, retrying: id={}, attempt={}", id, attempt);
+            expected = result.current();
+        }
+        cancelFailures.increment();
+        throw new ConcurrentOrderUpdateException(id, "cancel", maxAttempts);
+    }
+
+    /**
+     * Outcome of one transition attempt: the transitioned order, or on a conflict the order as it is now
+     */
+    private record Attempt(Order transitioned, Order current) {
+    }
+
+    private Attempt tryCancel(Long id, Order expected) {
+        Order order = expected != null ? expected : findPending(id);
+
+        Instant now = Instant.now();
+        if (orderRepository.transitionStatus(id, order.getVersion(), OrderStatus.PENDING, OrderStatus.CANCELLED, now) == 0) {
+            // Changed since it was cached or read. A read after a read in this transaction would see
+            // the same snapshot, so then the next attempt reads it instead
+            return new Attempt(null, expected != null ? findPending(id) : null);
+        }
+
+        // Detached by the update, so this only mirrors the new row for the event and the response
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setVersion(order.getVersion() + 1);
+        order.setUpdatedAt(now);
+
+        eventPublisher.publishOrderEvent(order.getId(), order.getSymbol(), EventType.ORDER_CANCELLED, order);
+        applicationEventPublisher.publishEvent(new OrdersUpdatedEvent(List.of(order)));
+        return new Attempt(order, null);
+    }
+
+    private Order findPending(Long id) {
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new OrderNotFoundException(id));
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new InvalidOrderStateException(id, order.getStatus(), "cancel");
+        }
+        return order;
+    }
+}
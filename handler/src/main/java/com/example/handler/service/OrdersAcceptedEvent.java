@@ -0,0 +1,12 @@
+package com.example.handler.service;
+
+import com.example.handler.model.entity.Order;
+
+import java.util.List;
+
+/**
+ * Application event raised when new orders have been persisted. Listeners that need the
+ * orders to be durable should consume it with a transactional listener after commit.
+ */
+public record OrdersAcceptedEvent(List<Order> orders) {
+}
@@ -0,0 +1,11 @@
+package com.example.handler.service;
+
+import com.example.handler.model.entity.Order;
+
+import java.util.List;
+
+/**
+ * Application event raised when existing orders changed state (cancelled, executed, filled or failed)
+ */
+public record OrdersUpdatedEvent(List<Order> orders) {
+}
@@ -0,0 +1,144 @@
+package com.example.handler.service;
+
+import com.example.common.constant.Constants;
+import com.example.common.dto.OrderEventDto;
+import com.example.handler.model.entity.OutboxEvent;
+import com.example.handler.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to Kafka in batches. A batch is deleted only after the broker has
+ * acknowledged every record in it, so events are published at least once and never
+ * for a transaction that rolled back.
+ * <p>
+ * A batch is claimed for {@code handler.outbox.relay.claim-lease-ms} in a short transaction, sent
+ * outside of any transaction and deleted in a second short one, so no outbox lock is held while
+ * waiting for Kafka and order transactions writing to the outbox never wait for the broker. A claim
+ * of a relay that stopped expires and its events are sent again by the next claim.
+ * <p>
+ * Per record, {@code outbox.relay.send} times the Kafka send until the broker acknowledgement and
+ * {@code outbox.event.age} the time from the order change to that acknowledgement.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer sendTimer;
+    private final Timer eventAgeTimer;
+    private final String relayId = UUID.randomUUID().toString();
+
+    @Value("${handler.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${handler.outbox.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${handler.outbox.relay.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sendTimer = meterRegistry.timer("outbox.relay.send");
+        this.eventAgeTimer = meterRegistry.timer("outbox.event.age");
+    }
+
+    @Scheduled(fixedDelayString = "${handler.outbox.relay.poll-interval-ms:100}")
+    public void relayPendingEvents() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Failed to relay outbox events, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> unclaimed = outboxEventRepository.lockNextUnclaimed(batchSize);
+            if (!unclaimed.isEmpty()) {
+                outboxEventRepository.claim(unclaimed.stream().map(OutboxEvent::getId).toList(), relayId,
+                        TimeUnit.MILLISECONDS.toMicros(claimLeaseMs));
+            }
+            return unclaimed;
+        });
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(events.size());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            OrderEventDto orderEvent = new OrderEventDto(
+                event.getOrderId(),
+                event.getSymbol(),
+                event.getEventType(),
+                event.getEventData(),
+                event.getCreatedAt()
+            );
+            long sentAt = System.nanoTime();
+            sends.add(kafkaTemplate.send(Constants.ORDER_EVENTS_TOPIC, event.getOrderId().toString(), orderEvent)
+                    .whenComplete((result, error) -> {
+                        if (error == null) {
+                            sendTimer.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+                            eventAgeTimer.record(Duration.between(event.getCreatedAt(), Instant.now()));
+                        }
+                    }));
+            ids.add(event.getId());
+        }
+        kafkaTemplate.flush();
+
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            release(ids);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for outbox batch acknowledgement", e);
+            }
+            throw new IllegalStateException("Outbox batch was not acknowledged by Kafka", e);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteClaimed(ids, relayId));
+        log.debug("Relayed {} outbox events", ids.size());
+        return ids.size();
+    }
+
+    /**
+     * Gives up the claim of an unacknowledged batch, so the next poll sends it again without waiting
+     * for the lease to expire.
+     */
+    private void release(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.release(ids, relayId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release outbox claim, events are sent again once it expires: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.handler.service.matching;
+
+/**
+ * A trade between an incoming (taker) and a resting (maker) order, in fixed-point units
+ */
+public record Fill(long takerOrderId, long makerOrderId, long price, long quantity) {
+}
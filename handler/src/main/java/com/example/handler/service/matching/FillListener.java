@@ -0,0 +1,10 @@
+package com.example.handler.service.matching;
+
+/**
+ * Receives the trades produced by an {@link OrderBook}. Prices and quantities are fixed-point.
+ */
+@FunctionalInterface
+public interface FillListener {
+
+    void onFill(long takerOrderId, long makerOrderId, long price, long quantity);
+}
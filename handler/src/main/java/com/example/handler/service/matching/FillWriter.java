@@ -0,0 +1,94 @@
+package com.example.handler.service.matching;
+
+import com.example.common.enums.EventType;
+import com.example.common.enums.OrderStatus;
+import com.example.handler.model.dto.ExecutionReport;
+import com.example.handler.model.entity.Order;
+import com.example.handler.repository.OrderRepository;
+import com.example.handler.service.EventPublisher;
+import com.example.handler.service.OrdersUpdatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the fills of a matching round: filled quantities and statuses of both sides,
+ * plus one ORDER_EXECUTED event per side and trade, all in one transaction.
+ * <p>
+ * Only pending orders rest on the books, so a fill of an order that is no longer pending means the
+ * books and the database disagree. That side of the fill is rejected and counted in
+ * {@code matching.fills.rejected}; the order keeps its final status instead of being executed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FillWriter {
+
+    private final OrderRepository orderRepository;
+    private final EventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional
+    public void persist(List<Fill> fills) {
+        Set<Long> orderIds = new HashSet<>();
+        for (Fill fill : fills) {
+            orderIds.add(fill.takerOrderId());
+            orderIds.add(fill.makerOrderId());
+        }
+        Map<Long, Order> orders = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        Instant executedAt = Instant.now();
+        for (Fill fill : fills) {
+            BigDecimal price = FixedPoint.toDecimal(fill.price());
+            BigDecimal quantity = FixedPoint.toDecimal(fill.quantity());
+            applyFill(orders.get(fill.takerOrderId()), fill.makerOrderId(), price, quantity, executedAt);
+            applyFill(orders.get(fill.makerOrderId()), fill.takerOrderId(), price, quantity, executedAt);
+        }
+
+        orderRepository.saveAll(orders.values());
+        applicationEventPublisher.publishEvent(new OrdersUpdatedEvent(List.copyOf(orders.values())));
+        log.debug("Persisted {} fills for {} orders", fills.size(), orders.size());
+    }
+
+    private void applyFill(Order order, Long counterOrderId, BigDecimal price, BigDecimal quantity, Instant executedAt) {
+        if (order.getStatus() != OrderStatus.PENDING) {
+            log.error("Rejected fill of an order that is no longer pending: id={}, status={}, counterOrderId={}, quantity={}",
+                    order.getId(), order.getStatus(), counterOrderId, quantity);
+            meterRegistry.counter("matching.fills.rejected").increment();
+            return;
+        }
+
+        order.setFilledQuantity(order.getFilledQuantity().add(quantity));
+        if (order.getFilledQuantity().compareTo(order.getQuantity()) >= 0) {
+            order.setStatus(OrderStatus.EXECUTED);
+        }
+
+        ExecutionReport report = new ExecutionReport(
+                order.getId(),
+                counterOrderId,
+                order.getSymbol(),
+                order.getSide(),
+                price,
+                quantity,
+                order.getQuantity(),
+                order.getFilledQuantity(),
+                order.getStatus(),
+                executedAt
+        );
+        eventPublisher.publishOrderEvent(order.getId(), order.getSymbol(), EventType.ORDER_EXECUTED, report);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.handler.service.matching;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Converts between {@link BigDecimal} amounts and the scaled longs the order books work with.
+ * The scale matches the DECIMAL(19,8) columns of the orders table.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 8;
+
+    private FixedPoint() {
+        // Utility class
+    }
+
+    public static long toFixed(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+}
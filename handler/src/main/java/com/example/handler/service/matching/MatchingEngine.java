@@ -0,0 +1,307 @@
+package com.example.handler.service.matching;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.common.exception.OrderProcessingException;
+import com.example.handler.model.entity.Order;
+import com.example.handler.repository.OrderRepository;
+import com.example.handler.service.OrdersAcceptedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory matching engine holding one {@link OrderBook} per symbol.
+ * <p>
+ * Symbols are hashed onto a fixed set of shards. Each shard is a single thread that owns its
+ * books, so matching needs no locks. A shard drains its queue in batches, matches every command
+ * in memory and then persists all resulting fills in one transaction before taking the next batch.
+ * Persisting is retried until it succeeds, the books are never ahead of the database: meanwhile
+ * the shard takes no commands and {@link MatchingEngineHealthIndicator} reports the engine down.
+ * Fills are written with the orders' versions; a write that lost to a concurrent change of an order
+ * is counted as an {@code orders.transition.conflicts} with {@code transition=fill} and retried.
+ * Books are rebuilt from the pending orders in the database on startup, before the web server
+ * accepts requests. Only one handler instance may run the engine.
+ */
+@Service
+@ConditionalOnProperty(name = "handler.matching.enabled", havingValue = "true")
+@Slf4j
+public class MatchingEngine implements SmartLifecycle {
+
+    private static final long MAX_PERSIST_BACKOFF_MS = 5000;
+
+    private final OrderRepository orderRepository;
+    private final FillWriter fillWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLong matchedFills = new AtomicLong();
+    private final AtomicInteger stalledShards = new AtomicInteger();
+    private final Counter fillConflicts;
+
+    private volatile boolean running;
+    private MatchingShard[] shards;
+
+    @Value("${handler.matching.shards:4}")
+    private int shardCount;
+
+    @Value("${handler.matching.max-batch-size:1024}")
+    private int maxBatchSize;
+
+    @Value("${handler.matching.cancel-timeout-ms:5000}")
+    private long cancelTimeoutMs;
+
+    @Value("${handler.execution.enabled:false}")
+    private boolean executionEngineEnabled;
+
+    public MatchingEngine(OrderRepository orderRepository, FillWriter fillWriter,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.fillWriter = fillWriter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fillConflicts = meterRegistry.counter("orders.transition.conflicts", "transition", "fill");
+    }
+
+    @Override
+    public void start() {
+        if (executionEngineEnabled) {
+            throw new IllegalStateException(
+                    "handler.matching.enabled and handler.execution.enabled cannot both be true");
+        }
+
+        log.info("Starting matching engine: shards={}", shardCount);
+        running = true;
+        shards = new MatchingShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new MatchingShard(i);
+            shards[i].thread.start();
+        }
+        rebuildBooks();
+    }
+
+    @Override
+    public void stop() {
+        log.info("Stopping matching engine");
+        running = false;
+        for (MatchingShard shard : shards) {
+            shard.thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts ahead of the web server so no request sees a half-built book.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @TransactionalEventListener
+    public void onOrdersAccepted(OrdersAcceptedEvent event) {
+        for (Order order : event.orders()) {
+            submit(order.getId(), order.getSymbol(), order.getSide(), order.getPrice(),
+                    order.getQuantity().subtract(order.getFilledQuantity()));
+        }
+    }
+
+    /**
+     * Removes an order from its book. When this returns, every fill involving the order has
+     * been committed, and the order can no longer be matched.
+     *
+     * @return false if the order was not resting on the book
+     */
+    public boolean cancel(Long orderId, String symbol) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        shardFor(symbol).queue.add(new CancelOrder(orderId, symbol, result));
+        try {
+            return result.get(cancelTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderProcessingException("Interrupted while cancelling order " + orderId + " on the book", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new OrderProcessingException("Failed to cancel order " + orderId + " on the book", e);
+        }
+    }
+
+    /**
+     * Puts an order that {@link #cancel} took off its book back on it, if it is still pending in the
+     * database; for when the cancellation could not be committed. It rests behind the orders already
+     * at its price.
+     */
+    public void restore(Long orderId) {
+        orderRepository.findById(orderId)
+                .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                .ifPresent(order -> {
+                    log.info("Restoring order on its book after failed cancellation: id={}", orderId);
+                    submit(order.getId(), order.getSymbol(), order.getSide(), order.getPrice(),
+                            order.getQuantity().subtract(order.getFilledQuantity()));
+                });
+    }
+
+    public long getMatchedFills() {
+        return matchedFills.get();
+    }
+
+    /**
+     * Shards that matched fills they have not been able to persist yet
+     */
+    public int getStalledShards() {
+        return stalledShards.get();
+    }
+
+    private void rebuildBooks() {
+        long[] restored = {0};
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<OrderRepository.RestingOrderView> pending =
+                         orderRepository.findByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING)) {
+                // Replayed through the normal path, so orders that cross but were never matched trade now
+                pending.forEach(order -> {
+                    submit(order.getId(), order.getSymbol(), order.getSide(), order.getPrice(),
+                            order.getQuantity().subtract(order.getFilledQuantity()));
+                    restored[0]++;
+                });
+            }
+        });
+        log.info("Rebuilt order books from {} pending orders", restored[0]);
+    }
+
+    private void submit(Long orderId, String symbol, OrderSide side, BigDecimal price, BigDecimal remaining) {
+        shardFor(symbol).queue.add(new NewOrder(orderId, symbol, side,
+                FixedPoint.toFixed(price), FixedPoint.toFixed(remaining)));
+    }
+
+    private MatchingShard shardFor(String symbol) {
+        return shards[Math.floorMod(symbol.hashCode(), shards.length)];
+    }
+
+    private sealed interface ShardCommand permits NewOrder, CancelOrder {
+        String symbol();
+    }
+
+    private record NewOrder(long orderId, String symbol, OrderSide side, long price, long quantity)
+            implements ShardCommand {
+    }
+
+    private record CancelOrder(long orderId, String symbol, CompletableFuture<Boolean> result)
+            implements ShardCommand {
+    }
+
+    private final class MatchingShard implements Runnable, FillListener {
+
+        private final BlockingQueue<ShardCommand> queue = new LinkedBlockingQueue<>();
+        private final Map<String, OrderBook> books = new HashMap<>();
+        private final List<ShardCommand> batch = new ArrayList<>();
+        private final List<Fill> fills = new ArrayList<>();
+        private final Map<CompletableFuture<Boolean>, Boolean> cancelResults = new HashMap<>();
+        private final Thread thread;
+
+        private MatchingShard(int index) {
+            this.thread = new Thread(this, "matching-shard-" + index);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    ShardCommand first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    processBatch();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.error("Matching batch failed on {}: {}", thread.getName(), e.getMessage(), e);
+                } finally {
+                    batch.clear();
+                    fills.clear();
+                    cancelResults.clear();
+                }
+            }
+        }
+
+        private void processBatch() throws InterruptedException {
+            for (ShardCommand command : batch) {
+                OrderBook book = books.computeIfAbsent(command.symbol(), OrderBook::new);
+                if (command instanceof NewOrder order) {
+                    book.submit(order.orderId(), order.side(), order.price(), order.quantity(), this);
+                } else if (command instanceof CancelOrder cancel) {
+                    cancelResults.put(cancel.result(), book.cancel(cancel.orderId()));
+                }
+            }
+
+            if (!fills.isEmpty()) {
+                persistFills();
+                matchedFills.addAndGet(fills.size());
+            }
+            // Completed only now, so cancellers see the fills of earlier commands committed
+            cancelResults.forEach(CompletableFuture::complete);
+        }
+
+        /**
+         * Retries until the fills are committed; the books already traded them, so dropping them would
+         * let other orders match against quantity the database still has open.
+         */
+        private void persistFills() throws InterruptedException {
+            boolean stalled = false;
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        fillWriter.persist(fills);
+                        return;
+                    } catch (Exception e) {
+                        if (e instanceof OptimisticLockingFailureException) {
+                            fillConflicts.increment();
+                        }
+                        if (!stalled) {
+                            stalled = true;
+                            stalledShards.incrementAndGet();
+                        }
+                        log.error("Failed to persist {} fills on {}, shard halted until they are: attempt={}, error={}",
+                                fills.size(), thread.getName(), attempt, e.getMessage());
+                        Thread.sleep(Math.min(100L * attempt, MAX_PERSIST_BACKOFF_MS));
+                    }
+                }
+            } finally {
+                if (stalled) {
+                    stalledShards.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void onFill(long takerOrderId, long makerOrderId, long price, long quantity) {
+            fills.add(new Fill(takerOrderId, makerOrderId, price, quantity));
+        }
+    }
+}
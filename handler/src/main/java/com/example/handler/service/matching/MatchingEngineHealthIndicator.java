@@ -0,0 +1,27 @@
+package com.example.handler.service.matching;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Down while a matching shard is halted on fills it cannot persist.
+ */
+@Component
+@ConditionalOnProperty(name = "handler.matching.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MatchingEngineHealthIndicator implements HealthIndicator {
+
+    private final MatchingEngine matchingEngine;
+
+    @Override
+    public Health health() {
+        int stalled = matchingEngine.getStalledShards();
+        Health.Builder health = stalled > 0 ? Health.down() : Health.up();
+        return health.withDetail("stalledShards", stalled)
+                .withDetail("matchedFills", matchingEngine.getMatchedFills())
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.handler.service.matching;
+
+import com.example.common.enums.OrderSide;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Price-time priority limit order book for a single symbol.
+ * Not thread-safe: every book is owned by exactly one matching shard thread.
+ */
+public class OrderBook {
+
+    private final String symbol;
+    private final TreeMap<Long, PriceLevel> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final TreeMap<Long, PriceLevel> asks = new TreeMap<>();
+    private final Map<Long, RestingOrder> restingOrders = new HashMap<>();
+
+    public OrderBook(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Matches an incoming limit order against the opposite side and rests whatever is left.
+     * Trades execute at the resting order's price.
+     *
+     * @return the quantity left resting on the book
+     */
+    public long submit(long orderId, OrderSide side, long price, long quantity, FillListener listener) {
+        if (restingOrders.containsKey(orderId)) {
+            return restingOrders.get(orderId).remaining;
+        }
+
+        boolean buy = side == OrderSide.BUY;
+        TreeMap<Long, PriceLevel> opposite = buy ? asks : bids;
+        long remaining = quantity;
+
+        while (remaining > 0 && !opposite.isEmpty()) {
+            Map.Entry<Long, PriceLevel> best = opposite.firstEntry();
+            long levelPrice = best.getKey();
+            if (buy ? levelPrice > price : levelPrice < price) {
+                break;
+            }
+
+            PriceLevel level = best.getValue();
+            while (remaining > 0 && level.liveOrders > 0) {
+                RestingOrder maker = level.orders.peekFirst();
+                if (maker.cancelled) {
+                    level.orders.pollFirst();
+                    continue;
+                }
+
+                long traded = Math.min(remaining, maker.remaining);
+                remaining -= traded;
+                maker.remaining -= traded;
+                level.quantity -= traded;
+                if (maker.remaining == 0) {
+                    level.orders.pollFirst();
+                    level.liveOrders--;
+                    restingOrders.remove(maker.orderId);
+                }
+                listener.onFill(orderId, maker.orderId, levelPrice, traded);
+            }
+
+            if (level.liveOrders == 0) {
+                opposite.pollFirstEntry();
+            }
+        }
+
+        if (remaining > 0) {
+            RestingOrder order = new RestingOrder(orderId, side, price, remaining);
+            TreeMap<Long, PriceLevel> own = buy ? bids : asks;
+            PriceLevel level = own.computeIfAbsent(price, p -> new PriceLevel());
+            level.orders.addLast(order);
+            level.liveOrders++;
+            level.quantity += remaining;
+            restingOrders.put(orderId, order);
+        }
+        return remaining;
+    }
+
+    /**
+     * Removes a resting order. The queue entry is dropped lazily when it reaches the head of its level.
+     *
+     * @return false if the order is not resting on this book
+     */
+    public boolean cancel(long orderId) {
+        RestingOrder order = restingOrders.remove(orderId);
+        if (order == null) {
+            return false;
+        }
+
+        order.cancelled = true;
+        TreeMap<Long, PriceLevel> own = order.side == OrderSide.BUY ? bids : asks;
+        PriceLevel level = own.get(order.price);
+        level.liveOrders--;
+        level.quantity -= order.remaining;
+        if (level.liveOrders == 0) {
+            own.remove(order.price);
+        }
+        return true;
+    }
+
+    /**
+     * @return the best bid price, or {@link Long#MIN_VALUE} if there are no bids
+     */
+    public long bestBid() {
+        return bids.isEmpty() ? Long.MIN_VALUE : bids.firstKey();
+    }
+
+    /**
+     * @return the best ask price, or {@link Long#MAX_VALUE} if there are no asks
+     */
+    public long bestAsk() {
+        return asks.isEmpty() ? Long.MAX_VALUE : asks.firstKey();
+    }
+
+    public long quantityAt(OrderSide side, long price) {
+        PriceLevel level = (side == OrderSide.BUY ? bids : asks).get(price);
+        return level == null ? 0 : level.quantity;
+    }
+
+    public int restingOrderCount() {
+        return restingOrders.size();
+    }
+
+    private static final class PriceLevel {
+        private final ArrayDeque<RestingOrder> orders = new ArrayDeque<>();
+        private int liveOrders;
+        private long quantity;
+    }
+
+    private static final class RestingOrder {
+        private final long orderId;
+        private final OrderSide side;
+        private final long price;
+        private long remaining;
+        private boolean cancelled;
+
+        private RestingOrder(long orderId, OrderSide side, long price, long remaining) {
+            this.orderId = orderId;
+            this.side = side;
+            this.price = price;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.handler.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenServiceTest {
+
+	private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdG9rZW4tc2VydmljZS10ZXN0cw==";
+
+	private final TokenService tokenService = new TokenService(SECRET, Duration.ofMinutes(5));
+
+	@Test
+	void issuedTokenVerifies() {
+		String token = tokenService.issue("admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))).token();
+
+		TokenService.VerifiedToken verified = tokenService.verify(token);
+
+		assertNotNull(verified);
+		assertEquals("admin", verified.username());
+		assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), verified.authorities());
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = tokenService.issue("admin", List.of()).token();
+		String tampered = "X" + token.substring(1);
+
+		assertNull(tokenService.verify(tampered));
+		assertNull(tokenService.verify("not-a-token"));
+	}
+
+	@Test
+	void tokenFromOtherKeyIsRejected() {
+		TokenService other = new TokenService("", Duration.ofMinutes(5));
+		String token = other.issue("admin", List.of()).token();
+
+		assertNull(tokenService.verify(token));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		TokenService expired = new TokenService(SECRET, Duration.ofSeconds(-1));
+		String token = expired.issue("admin", List.of()).token();
+
+		assertNull(tokenService.verify(token));
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.handler.service;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.handler.model.entity.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderCacheTest {
+
+	private final OrderCache cache = new OrderCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+	@Test
+	void staleLoadDoesNotReplaceNewerCommittedVersion() {
+		OrderStatus status = cache.get(1L, id -> {
+			// The cancellation commits while the read of the pending order is in flight
+			cache.onOrdersUpdated(new OrdersUpdatedEvent(List.of(order(OrderStatus.CANCELLED, 1L))));
+			return order(OrderStatus.PENDING, 0L);
+		}).getStatus();
+
+		assertEquals(OrderStatus.PENDING, status);
+		assertEquals(OrderStatus.CANCELLED, cache.get(1L, id -> order(OrderStatus.PENDING, 0L)).getStatus());
+	}
+
+	@Test
+	void loadRacingAnInvalidationIsNotCached() {
+		cache.get(1L, id -> {
+			// Another instance changes the order while it is being read
+			cache.invalidate(1L);
+			return order(OrderStatus.PENDING, 0L);
+		});
+
+		assertEquals(OrderStatus.EXECUTED, cache.get(1L, id -> order(OrderStatus.EXECUTED, 1L)).getStatus());
+	}
+
+	private static Order order(OrderStatus status, long version) {
+		return new Order(1L, "FPT", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, status, OrderSide.BUY,
+				version, Instant.now(), Instant.now());
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.handler.service;
+
+import com.example.handler.model.dto.OrderFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderExportServiceTest {
+
+	@Test
+	void everyLineIsABareJsonObject() throws Exception {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:order-export;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("""
+				CREATE TABLE orders (id BIGINT PRIMARY KEY, symbol VARCHAR(20), side VARCHAR(10), status VARCHAR(20),
+				quantity DECIMAL(19, 4), price DECIMAL(19, 4), filled_quantity DECIMAL(19, 4), version BIGINT,
+				created_at TIMESTAMP(6), updated_at TIMESTAMP(6))""");
+		for (int id = 1; id <= 3; id++) {
+			jdbcTemplate.update("INSERT INTO orders VALUES (?, 'FPT', 'BUY', 'PENDING', 10, 2.5, 0, 0, ?, ?)",
+					id, "2024-01-01 00:00:0" + id, "2024-01-01 00:00:0" + id);
+		}
+		OrderExportService exportService = new OrderExportService(dataSource, new ObjectMapper());
+		// Without the MySQL streaming fetch size, which H2 rejects
+		ReflectionTestUtils.setField(exportService, "jdbcTemplate", jdbcTemplate);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long exported = exportService.export(new OrderFilter(null, null, null), null, null, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+		assertEquals(3, exported);
+		assertEquals(4, lines.length);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(lines[i].startsWith("{\"id\":" + (i + 1) + ","), lines[i]);
+		}
+		assertEquals("", lines[3]);
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.handler.service;
+
+import com.example.common.exception.ConcurrentOrderUpdateException;
+import com.example.handler.repository.OrderRepository;
+import com.example.handler.service.matching.MatchingEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTest {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final MatchingEngine engine = mock(MatchingEngine.class);
+	private final OrderTransitions orderTransitions = mock(OrderTransitions.class);
+	@SuppressWarnings("unchecked")
+	private final ObjectProvider<MatchingEngine> matchingEngine = mock(ObjectProvider.class);
+	private final OrderService orderService = new OrderService(orderRepository, mock(EventPublisher.class),
+			mock(OrderExecutor.class), mock(ApplicationEventPublisher.class), matchingEngine, mock(OrderCache.class),
+			orderTransitions);
+
+	@Test
+	void failedCancellationPutsTheOrderBackOnItsBook() {
+		when(matchingEngine.getIfAvailable()).thenReturn(engine);
+		when(orderRepository.findSymbolById(1L)).thenReturn(Optional.of("FPT"));
+		when(engine.cancel(1L, "FPT")).thenReturn(true);
+		when(orderTransitions.cancel(1L)).thenThrow(new ConcurrentOrderUpdateException(1L, "cancel", 3));
+
+		assertThrows(ConcurrentOrderUpdateException.class, () -> orderService.cancelOrder(1L));
+
+		var order = inOrder(engine, orderTransitions);
+		order.verify(engine).cancel(1L, "FPT");
+		order.verify(orderTransitions).cancel(1L);
+		order.verify(engine).restore(1L);
+	}
+
+	@Test
+	void orderThatWasNotOnTheBookIsNotRestored() {
+		when(matchingEngine.getIfAvailable()).thenReturn(engine);
+		when(orderRepository.findSymbolById(1L)).thenReturn(Optional.of("FPT"));
+		when(engine.cancel(1L, "FPT")).thenReturn(false);
+		when(orderTransitions.cancel(1L)).thenThrow(new ConcurrentOrderUpdateException(1L, "cancel", 3));
+
+		assertThrows(ConcurrentOrderUpdateException.class, () -> orderService.cancelOrder(1L));
+
+		verify(engine, never()).restore(1L);
+	}
+}
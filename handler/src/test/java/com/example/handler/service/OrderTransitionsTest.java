@@ -0,0 +1,91 @@
+package com.example.handler.service;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.common.exception.InvalidOrderStateException;
+import com.example.common.exception.OrderNotFoundException;
+import com.example.handler.model.entity.Order;
+import com.example.handler.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderTransitionsTest {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final OrderCache orderCache = new OrderCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final OrderTransitions transitions = new OrderTransitions(orderRepository, mock(EventPublisher.class),
+			mock(ApplicationEventPublisher.class), mock(PlatformTransactionManager.class), orderCache, meterRegistry);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(transitions, "maxAttempts", 3);
+	}
+
+	@Test
+	void cachedOrderIsCancelledWithoutRead() {
+		orderCache.onOrdersAccepted(new OrdersAcceptedEvent(List.of(order(OrderStatus.PENDING, 4L))));
+		when(orderRepository.transitionStatus(eq(1L), eq(4L), eq(OrderStatus.PENDING), eq(OrderStatus.CANCELLED), any()))
+				.thenReturn(1);
+
+		Order cancelled = transitions.cancel(1L);
+
+		assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+		assertEquals(5L, cancelled.getVersion());
+		verify(orderRepository, never()).findById(anyLong());
+	}
+
+	@Test
+	void staleCachedVersionIsRetriedWithTheCurrentOne() {
+		// A single attempt: the miss on the cached version must not use it up
+		ReflectionTestUtils.setField(transitions, "maxAttempts", 1);
+		orderCache.onOrdersAccepted(new OrdersAcceptedEvent(List.of(order(OrderStatus.PENDING, 4L))));
+		when(orderRepository.transitionStatus(eq(1L), eq(4L), any(), any(), any())).thenReturn(0);
+		when(orderRepository.findById(1L)).thenReturn(Optional.of(order(OrderStatus.PENDING, 6L)));
+		when(orderRepository.transitionStatus(eq(1L), eq(6L), any(), any(), any())).thenReturn(1);
+
+		assertEquals(7L, transitions.cancel(1L).getVersion());
+		assertEquals(1, meterRegistry.counter("orders.transition.stale", "transition", "cancel").count());
+		assertEquals(0, meterRegistry.counter("orders.transition.conflicts", "transition", "cancel").count());
+	}
+
+	@Test
+	void orderNoLongerPendingIsRejected() {
+		orderCache.onOrdersAccepted(new OrdersAcceptedEvent(List.of(order(OrderStatus.PENDING, 4L))));
+		when(orderRepository.findById(1L)).thenReturn(Optional.of(order(OrderStatus.EXECUTED, 5L)));
+
+		assertThrows(InvalidOrderStateException.class, () -> transitions.cancel(1L));
+	}
+
+	@Test
+	void uncachedMissingOrderIsNotFound() {
+		when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+
+		assertThrows(OrderNotFoundException.class, () -> transitions.cancel(1L));
+	}
+
+	private static Order order(OrderStatus status, long version) {
+		return new Order(1L, "FPT", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, status, OrderSide.BUY,
+				version, Instant.now(), Instant.now());
+	}
+}
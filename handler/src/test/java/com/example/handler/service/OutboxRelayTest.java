@@ -0,0 +1,116 @@
+package com.example.handler.service;
+
+import com.example.common.enums.EventType;
+import com.example.handler.model.entity.OutboxEvent;
+import com.example.handler.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+	private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+	private final OutboxLocks transactionManager = new OutboxLocks();
+	private final CompletableFuture<SendResult<String, Object>> ack = new CompletableFuture<>();
+	private final CountDownLatch sent = new CountDownLatch(1);
+	private OutboxRelay relay;
+
+	@BeforeEach
+	void setUp() {
+		OutboxEvent event = new OutboxEvent(1L, 42L, "FPT", EventType.ORDER_CREATED, "{}", Instant.now());
+		when(repository.lockNextUnclaimed(anyInt())).thenReturn(List.of(event)).thenReturn(List.of());
+		when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(invocation -> {
+			sent.countDown();
+			return ack;
+		});
+
+		relay = new OutboxRelay(repository, kafkaTemplate, transactionManager, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(relay, "batchSize", 500);
+		ReflectionTestUtils.setField(relay, "sendTimeoutMs", 5000L);
+		ReflectionTestUtils.setField(relay, "claimLeaseMs", 60000L);
+	}
+
+	@Test
+	void outboxInsertIsNotBlockedWhileBatchAwaitsAck() throws Exception {
+		Thread relayThread = new Thread(relay::relayPendingEvents);
+		relayThread.start();
+		assertTrue(sent.await(5, TimeUnit.SECONDS));
+
+		// An order transaction writing to the outbox while the batch is in flight
+		boolean inserted = transactionManager.locks.tryLock(100, TimeUnit.MILLISECONDS);
+		if (inserted) {
+			transactionManager.locks.unlock();
+		}
+
+		ack.complete(null);
+		relayThread.join(5000);
+		assertTrue(inserted, "outbox insert waited for the Kafka ack");
+		verify(repository).claim(eq(List.of(1L)), anyString(), anyLong());
+		verify(repository).deleteClaimed(eq(List.of(1L)), anyString());
+	}
+
+	@Test
+	void unacknowledgedBatchIsReleasedNotDeleted() throws Exception {
+		Thread relayThread = new Thread(relay::relayPendingEvents);
+		relayThread.start();
+		assertTrue(sent.await(5, TimeUnit.SECONDS));
+
+		ack.completeExceptionally(new IllegalStateException("broker down"));
+		relayThread.join(5000);
+		verify(repository).release(eq(List.of(1L)), anyString());
+		verify(repository, never()).deleteClaimed(anyList(), anyString());
+	}
+
+	/**
+	 * Holds a lock for as long as a transaction is open, standing in for the row and gap locks an
+	 * outbox transaction takes in MySQL.
+	 */
+	private static class OutboxLocks implements PlatformTransactionManager {
+
+		private final ReentrantLock locks = new ReentrantLock();
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			locks.lock();
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+			locks.unlock();
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+			locks.unlock();
+		}
+	}
+}
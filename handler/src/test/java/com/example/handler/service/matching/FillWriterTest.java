@@ -0,0 +1,54 @@
+package com.example.handler.service.matching;
+
+import com.example.common.enums.EventType;
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.handler.model.entity.Order;
+import com.example.handler.repository.OrderRepository;
+import com.example.handler.service.EventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FillWriterTest {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final EventPublisher eventPublisher = mock(EventPublisher.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final FillWriter fillWriter = new FillWriter(orderRepository, eventPublisher,
+			mock(ApplicationEventPublisher.class), meterRegistry);
+
+	@Test
+	void fillOfAnOrderNoLongerPendingLeavesItsStatus() {
+		Order cancelled = order(1L, OrderSide.BUY, OrderStatus.CANCELLED);
+		Order maker = order(2L, OrderSide.SELL, OrderStatus.PENDING);
+		when(orderRepository.findAllById(any())).thenReturn(List.of(cancelled, maker));
+
+		fillWriter.persist(List.of(new Fill(1L, 2L, FixedPoint.toFixed(BigDecimal.TEN), FixedPoint.toFixed(BigDecimal.ONE))));
+
+		assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+		assertEquals(0, BigDecimal.ZERO.compareTo(cancelled.getFilledQuantity()));
+		assertEquals(OrderStatus.EXECUTED, maker.getStatus());
+		assertEquals(1, meterRegistry.counter("matching.fills.rejected").count());
+		verify(eventPublisher, never()).publishOrderEvent(eq(1L), anyString(), any(EventType.class), any());
+		verify(eventPublisher).publishOrderEvent(eq(2L), anyString(), eq(EventType.ORDER_EXECUTED), any());
+	}
+
+	private static Order order(long id, OrderSide side, OrderStatus status) {
+		return new Order(id, "FPT", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, status, side,
+				0L, Instant.now(), Instant.now());
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.handler.service.matching;
+
+import com.example.common.enums.OrderSide;
+import com.example.common.enums.OrderStatus;
+import com.example.handler.model.entity.Order;
+import com.example.handler.repository.OrderRepository;
+import com.example.handler.service.OrdersAcceptedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MatchingEngineTest {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final FillWriter fillWriter = mock(FillWriter.class);
+	private final MatchingEngine engine = new MatchingEngine(orderRepository, fillWriter,
+			mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+	private final MatchingEngineHealthIndicator health = new MatchingEngineHealthIndicator(engine);
+
+	@BeforeEach
+	void setUp() {
+		when(orderRepository.findByStatusOrderByCreatedAtAscIdAsc(OrderStatus.PENDING)).thenReturn(Stream.empty());
+		ReflectionTestUtils.setField(engine, "shardCount", 1);
+		ReflectionTestUtils.setField(engine, "maxBatchSize", 1024);
+		ReflectionTestUtils.setField(engine, "cancelTimeoutMs", 5000L);
+		engine.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		engine.stop();
+	}
+
+	@Test
+	void fillsAreRetriedUntilPersistedWhileHealthIsDown() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		CountDownLatch failing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch persisted = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			int attempt = attempts.incrementAndGet();
+			if (attempt <= 4) {
+				if (attempt == 2) {
+					// The first failure has halted the shard by now
+					failing.countDown();
+					release.await(5, TimeUnit.SECONDS);
+				}
+				throw new TransientDataAccessResourceException("database down");
+			}
+			persisted.countDown();
+			return null;
+		}).when(fillWriter).persist(anyList());
+
+		accept(order(1L, OrderSide.BUY, "10"), order(2L, OrderSide.SELL, "10"));
+
+		assertTrue(failing.await(5, TimeUnit.SECONDS));
+		assertEquals(Status.DOWN, health.health().getStatus());
+		release.countDown();
+
+		assertTrue(persisted.await(5, TimeUnit.SECONDS));
+		assertEquals(5, attempts.get());
+		awaitMatchedFills(1);
+		assertEquals(Status.UP, health.health().getStatus());
+	}
+
+	@Test
+	void restoredOrderTradesAgain() throws Exception {
+		Order buy = order(1L, OrderSide.BUY, "10");
+		when(orderRepository.findById(1L)).thenReturn(Optional.of(buy));
+		accept(buy);
+
+		assertTrue(engine.cancel(1L, "FPT"));
+		engine.restore(1L);
+		accept(order(2L, OrderSide.SELL, "10"));
+
+		awaitMatchedFills(1);
+	}
+
+	@Test
+	void orderNoLongerPendingIsNotRestored() {
+		Order buy = order(1L, OrderSide.BUY, "10");
+		accept(buy);
+		assertTrue(engine.cancel(1L, "FPT"));
+
+		buy.setStatus(OrderStatus.CANCELLED);
+		when(orderRepository.findById(1L)).thenReturn(Optional.of(buy));
+		engine.restore(1L);
+
+		assertFalse(engine.cancel(1L, "FPT"));
+	}
+
+	private void accept(Order... orders) {
+		engine.onOrdersAccepted(new OrdersAcceptedEvent(List.of(orders)));
+	}
+
+	private void awaitMatchedFills(long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (engine.getMatchedFills() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, engine.getMatchedFills());
+	}
+
+	private static Order order(Long id, OrderSide side, String price) {
+		return new Order(id, "FPT", BigDecimal.ONE, new BigDecimal(price), BigDecimal.ZERO, OrderStatus.PENDING,
+				side, 0L, Instant.now(), Instant.now());
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.handler.service.matching;
+
+import com.example.common.enums.OrderSide;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+
+	private final OrderBook book = new OrderBook("VCB");
+	private final List<Fill> fills = new ArrayList<>();
+	private final FillListener listener = (taker, maker, price, quantity) -> fills.add(new Fill(taker, maker, price, quantity));
+
+	@Test
+	void nonCrossingOrdersRest() {
+		book.submit(1, OrderSide.BUY, 100, 10, listener);
+		book.submit(2, OrderSide.SELL, 101, 10, listener);
+
+		assertTrue(fills.isEmpty());
+		assertEquals(100, book.bestBid());
+		assertEquals(101, book.bestAsk());
+		assertEquals(2, book.restingOrderCount());
+	}
+
+	@Test
+	void matchesAtRestingPriceInPriceThenTimePriority() {
+		book.submit(1, OrderSide.SELL, 102, 5, listener);
+		book.submit(2, OrderSide.SELL, 101, 5, listener);
+		book.submit(3, OrderSide.SELL, 101, 5, listener);
+
+		long remaining = book.submit(4, OrderSide.BUY, 102, 12, listener);
+
+		assertEquals(0, remaining);
+		assertEquals(List.of(
+				new Fill(4, 2, 101, 5),
+				new Fill(4, 3, 101, 5),
+				new Fill(4, 1, 102, 2)
+		), fills);
+		assertEquals(3, book.quantityAt(OrderSide.SELL, 102));
+		assertEquals(Long.MIN_VALUE, book.bestBid());
+	}
+
+	@Test
+	void restsRemainderOfPartiallyFilledOrder() {
+		book.submit(1, OrderSide.BUY, 100, 4, listener);
+
+		long remaining = book.submit(2, OrderSide.SELL, 99, 10, listener);
+
+		assertEquals(6, remaining);
+		assertEquals(List.of(new Fill(2, 1, 100, 4)), fills);
+		assertEquals(99, book.bestAsk());
+		assertEquals(Long.MIN_VALUE, book.bestBid());
+	}
+
+	@Test
+	void cancelledOrdersAreSkipped() {
+		book.submit(1, OrderSide.SELL, 100, 5, listener);
+		book.submit(2, OrderSide.SELL, 100, 5, listener);
+
+		assertTrue(book.cancel(1));
+		assertFalse(book.cancel(1));
+		assertEquals(5, book.quantityAt(OrderSide.SELL, 100));
+
+		book.submit(3, OrderSide.BUY, 100, 5, listener);
+
+		assertEquals(List.of(new Fill(3, 2, 100, 5)), fills);
+		assertEquals(0, book.restingOrderCount());
+		assertEquals(Long.MAX_VALUE, book.bestAsk());
+	}
+
+	@Test
+	void duplicateSubmissionIsIgnored() {
+		book.submit(1, OrderSide.BUY, 100, 5, listener);
+		book.submit(1, OrderSide.BUY, 100, 5, listener);
+
+		assertEquals(5, book.quantityAt(OrderSide.BUY, 100));
+		assertEquals(1, book.restingOrderCount());
+	}
+}
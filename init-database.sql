@@ -11,23 +11,156 @@ CREATE TABLE IF NOT EXISTS orders (
     symbol VARCHAR(10) NOT NULL,
     quantity DECIMAL(19,8) NOT NULL,
     price DECIMAL(19,8) NOT NULL,
+    filled_quantity DECIMAL(19,8) NOT NULL DEFAULT 0,
     status VARCHAR(20) NOT NULL,
     side VARCHAR(10) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
 
-    INDEX idx_orders_symbol (symbol)
+    -- Keyset listing indexes; InnoDB appends the primary key, which serves the id tie-breaker
+    INDEX idx_orders_created (created_at),
+    INDEX idx_orders_symbol_created (symbol, created_at),
+    INDEX idx_orders_status_created (status, created_at),
+    INDEX idx_orders_side_created (side, created_at),
+    INDEX idx_orders_status (status, id)
 );
 
--- Create events table
+-- Create id generator table (pooled ids let Hibernate batch inserts, unlike AUTO_INCREMENT)
+CREATE TABLE IF NOT EXISTS id_generators (
+    generator_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+-- Start generated ids above the sample rows inserted below
+INSERT IGNORE INTO id_generators (generator_name, next_value) VALUES ('orders', 1000);
+
+-- Create outbox table (order events waiting to be relayed to Kafka)
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    event_data TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    -- Relay that is sending the event, until its claim expires
+    claimed_by VARCHAR(36) NULL,
+    claimed_until TIMESTAMP(6) NULL,
+
+    INDEX idx_outbox_created_at (created_at, id),
+    INDEX idx_outbox_claimed_until (claimed_until)
+);
+
+-- Create idempotency keys table (responses to replay for retried POST /orders)
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    request_hash CHAR(64) NOT NULL,
+    order_id BIGINT NOT NULL,
+    response_body TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+    INDEX idx_idempotency_keys_created_at (created_at)
+);
+
+-- Create events table, partitioned by day on created_at. The ETL service adds daily partitions ahead
+-- of time and archives then drops expired ones; the partition key has to be part of the primary key
 CREATE TABLE IF NOT EXISTS events (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT,
     order_id BIGINT NOT NULL,
     event_type VARCHAR(50) NOT NULL,
     event_data TEXT NOT NULL,
     created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    -- order-events partition and offset the event was first read from
+    source_partition INT NULL,
+    source_offset BIGINT NULL,
+
+    PRIMARY KEY (id, created_at),
+    -- Redelivered records are not stored twice; created_at is part of every unique key of a partitioned table
+    UNIQUE KEY uk_event_source (source_partition, source_offset, created_at),
+    INDEX idx_event_order_id (order_id),
+    -- Time-range exports
+    INDEX idx_event_created_at (created_at)
+)
+PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- Create consumer offsets table (ETL sink position, stored in the same transaction as the events)
+CREATE TABLE IF NOT EXISTS consumer_offsets (
+    consumer_group VARCHAR(255) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    partition_id INT NOT NULL,
+    next_offset BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+
+    PRIMARY KEY (consumer_group, topic, partition_id)
+);
+
+-- Create order projection table (ETL read model of current order state, written in snapshots with the
+-- projection's offsets in consumer_offsets)
+CREATE TABLE IF NOT EXISTS order_projection (
+    order_id BIGINT PRIMARY KEY,
+    symbol VARCHAR(10) NOT NULL,
+    side VARCHAR(10) NULL,
+    status VARCHAR(20) NOT NULL,
+    quantity DECIMAL(19,8) NULL,
+    price DECIMAL(19,8) NULL,
+    filled_quantity DECIMAL(19,8) NOT NULL,
+    filled_notional DECIMAL(27,8) NOT NULL,
+    -- order-events partition of the order, loaded on assignment
+    source_partition INT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+
+    INDEX idx_order_projection_partition (source_partition),
+    INDEX idx_order_projection_symbol_status (symbol, status)
+);
+
+-- Per-symbol execution rollups (1s, 1m and 1h windows), merged into by the ETL's rollup flushes
+CREATE TABLE IF NOT EXISTS execution_rollups (
+    symbol VARCHAR(10) NOT NULL,
+    resolution VARCHAR(2) NOT NULL,
+    window_start TIMESTAMP(3) NOT NULL,
+    trade_count BIGINT NOT NULL,
+    quantity DECIMAL(27,8) NOT NULL,
+    notional DECIMAL(36,8) NOT NULL,
+    -- Open and close are the prices of the earliest and latest execution in the window
+    open_price DECIMAL(19,8) NOT NULL,
+    open_at TIMESTAMP(6) NOT NULL,
+    high_price DECIMAL(19,8) NOT NULL,
+    low_price DECIMAL(19,8) NOT NULL,
+    close_price DECIMAL(19,8) NOT NULL,
+    close_at TIMESTAMP(6) NOT NULL,
+
+    PRIMARY KEY (symbol, resolution, window_start)
+);
+
+-- Create DLQ tables (failed events kept for analysis and replay; stack traces stored once per fingerprint)
+CREATE TABLE IF NOT EXISTS dlq_stack_traces (
+    fingerprint CHAR(64) PRIMARY KEY,
+    error_class VARCHAR(255) NOT NULL,
+    stack_trace MEDIUMTEXT NOT NULL,
+    occurrences BIGINT NOT NULL DEFAULT 1,
+    first_seen_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    last_seen_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS dlq_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    original_topic VARCHAR(255) NOT NULL,
+    original_key VARCHAR(255),
+    original_message TEXT NOT NULL,
+    error_class VARCHAR(255) NOT NULL,
+    error_message VARCHAR(1000),
+    stack_trace_fingerprint CHAR(64) NOT NULL,
+    retry_count INT NOT NULL,
+    failed_at TIMESTAMP(6) NOT NULL,
+    replayed_at TIMESTAMP(6) NULL,
 
-    INDEX idx_event_order_id (order_id)
+    INDEX idx_dlq_error_class (error_class, failed_at),
+    INDEX idx_dlq_original_key (original_key, failed_at),
+    INDEX idx_dlq_fingerprint (stack_trace_fingerprint),
+    INDEX idx_dlq_failed_at (failed_at)
 );
 
 -- Insert some sample data for testing
@@ -40,6 +173,14 @@ INSERT INTO orders (symbol, quantity, price, status, side) VALUES
 SELECT 'Database initialization completed successfully!' AS message;
 SHOW TABLES;
 DESCRIBE orders;
+DESCRIBE id_generators;
+DESCRIBE outbox_events;
+DESCRIBE idempotency_keys;
 DESCRIBE events;
+DESCRIBE consumer_offsets;
+DESCRIBE order_projection;
+DESCRIBE execution_rollups;
+DESCRIBE dlq_stack_traces;
+DESCRIBE dlq_messages;
 
 SELECT 'Sample data inserted. Ready for Order Simulator!' AS message;
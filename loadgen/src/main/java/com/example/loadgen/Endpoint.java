@@ -0,0 +1,20 @@
+package com.example.loadgen;
+
+/**
+ * Handler endpoints driven by the load generator
+ */
+enum Endpoint {
+    CREATE("POST /orders"),
+    CANCEL("POST /orders/{id}/cancel"),
+    SIMULATE("POST /orders/simulation-execution");
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts of one endpoint during one stage. Latencies are recorded in
+ * microseconds from the request's intended send time, so queueing on either side shows up.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    private Histogram interval;
+
+    void record(long latencyNanos, int statusCode) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        if (statusCode >= 200 && statusCode < 300) {
+            succeeded.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Counts a request that could not be sent because too many were in flight
+     */
+    void shed() {
+        shed.increment();
+    }
+
+    /**
+     * Moves the latencies recorded since the previous call into the stage total and returns them.
+     * Only called from the reporting thread.
+     */
+    synchronized Histogram takeInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return interval;
+    }
+
+    synchronized Histogram total() {
+        takeInterval();
+        return total;
+    }
+
+    long succeeded() {
+        return succeeded.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    long shedCount() {
+        return shed.sum();
+    }
+
+    /**
+     * Response status counts; 0 stands for requests that got no response (timeouts, refused connections)
+     */
+    Map<Integer, Long> statusCodes() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCodes.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+}
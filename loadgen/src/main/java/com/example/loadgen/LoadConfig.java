@@ -0,0 +1,121 @@
+package com.example.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, given as {@code --name=value}. Every option has a default, so a bare
+ * run offers 500 requests/s of synthetic traffic to a local handler for one minute.
+ */
+record LoadConfig(
+        String baseUrl,
+        String username,
+        String password,
+        List<Integer> rates,
+        Duration duration,
+        Duration warmup,
+        Duration reportInterval,
+        Duration requestTimeout,
+        int createWeight,
+        int cancelWeight,
+        int simulateWeight,
+        Path ordersFile,
+        Path histogramDir,
+        long seed,
+        int maxInFlight
+) {
+
+    static final String USAGE = """
+            Usage: gradle :loadgen:run --args="[options]"
+
+              --base-url=URL          handler base URL (default http://localhost:8080)
+              --user=NAME             login user (default admin; needs ADMIN for simulation-execution)
+              --password=SECRET       login password (default admin)
+              --rate=N[,N...]         offered requests/s; several rates run as consecutive stages (default 500)
+              --duration=D            length of each stage, e.g. 30s or 2m (default 60s)
+              --warmup=D              unrecorded warm-up at the first rate (default 10s)
+              --report-interval=D     progress line interval (default 5s)
+              --timeout=D             per-request timeout (default 10s)
+              --mix=C:X:S             weights of create, cancel and simulation-execution (default 90:9:1)
+              --orders-file=PATH      JSON lines of CreateOrderRequest bodies to replay instead of synthetic orders
+              --histogram-dir=PATH    also write full HdrHistogram percentile distributions per stage and endpoint
+              --seed=N                seed for synthetic orders and the request mix (default 42)
+              --max-in-flight=N       requests allowed in flight before new ones are shed and counted (default 10000)
+            """;
+
+    private static final Set<String> OPTIONS = Set.of("base-url", "user", "password", "rate", "duration", "warmup",
+            "report-interval", "timeout", "mix", "orders-file", "histogram-dir", "seed", "max-in-flight");
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.equals("--help")) {
+                throw new IllegalArgumentException("Open-loop load generator for the order handler");
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, separator);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            options.put(name, arg.substring(separator + 1));
+        }
+
+        String[] mix = options.getOrDefault("mix", "90:9:1").split(":");
+        if (mix.length != 3) {
+            throw new IllegalArgumentException("--mix must be create:cancel:simulate, e.g. 90:9:1");
+        }
+
+        LoadConfig config = new LoadConfig(
+                stripTrailingSlash(options.getOrDefault("base-url", "http://localhost:8080")),
+                options.getOrDefault("user", "admin"),
+                options.getOrDefault("password", "admin"),
+                Arrays.stream(options.getOrDefault("rate", "500").split(",")).map(String::trim).map(Integer::parseInt).toList(),
+                parseDuration(options.getOrDefault("duration", "60s")),
+                parseDuration(options.getOrDefault("warmup", "10s")),
+                parseDuration(options.getOrDefault("report-interval", "5s")),
+                parseDuration(options.getOrDefault("timeout", "10s")),
+                Integer.parseInt(mix[0]),
+                Integer.parseInt(mix[1]),
+                Integer.parseInt(mix[2]),
+                options.containsKey("orders-file") ? Path.of(options.get("orders-file")) : null,
+                options.containsKey("histogram-dir") ? Path.of(options.get("histogram-dir")) : null,
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "10000"))
+        );
+
+        if (config.rates().stream().anyMatch(rate -> rate <= 0)) {
+            throw new IllegalArgumentException("--rate values must be positive");
+        }
+        if (config.createWeight() < 0 || config.cancelWeight() < 0 || config.simulateWeight() < 0
+                || config.createWeight() + config.cancelWeight() + config.simulateWeight() == 0) {
+            throw new IllegalArgumentException("--mix weights must be non-negative and not all zero");
+        }
+        return config;
+    }
+
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        return switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration: " + value + " (use ms, s, m or h)");
+        };
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
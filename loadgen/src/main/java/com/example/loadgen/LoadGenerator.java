@@ -0,0 +1,276 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the handler. Requests are sent on a fixed schedule derived from the
+ * target rate, independent of how fast earlier requests complete, and each latency is measured from
+ * the time the request was due rather than the time it was actually sent. A stalled handler therefore
+ * shows up as latency instead of silently lowering the offered load (coordinated omission).
+ * <p>
+ * Several rates can be given to step the offered load up within one run; the summary then shows
+ * where achieved throughput stops following the offered rate and latency percentiles take off.
+ */
+public class LoadGenerator {
+
+    private static final int CREATED_ID_CAPACITY = 100_000;
+
+    private final LoadConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final OrderSource orderSource;
+    private final Random random;
+    private final BlockingQueue<Long> cancellableIds = new ArrayBlockingQueue<>(CREATED_ID_CAPACITY);
+    private final Semaphore inFlight;
+    private final PrintStream out = System.out;
+
+    private String authorization;
+
+    LoadGenerator(LoadConfig config) {
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.requestTimeout())
+                .build();
+        this.orderSource = config.ordersFile() != null
+                ? OrderSource.fromFile(config.ordersFile(), objectMapper)
+                : OrderSource.synthetic(config.seed());
+        this.random = new Random(config.seed());
+        this.inFlight = new Semaphore(config.maxInFlight());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadGenerator(config).run();
+    }
+
+    void run() throws Exception {
+        authorization = "Bearer " + login();
+        out.printf("Target %s, mix create:cancel:simulate=%d:%d:%d, orders from %s%n",
+                config.baseUrl(), config.createWeight(), config.cancelWeight(), config.simulateWeight(),
+                config.ordersFile() != null ? config.ordersFile() : "synthetic generator (seed " + config.seed() + ")");
+
+        if (!config.warmup().isZero()) {
+            out.printf("Warming up for %ds at %d/s%n", config.warmup().toSeconds(), config.rates().get(0));
+            runStage(config.rates().get(0), config.warmup(), false);
+        }
+
+        List<StageResult> results = new ArrayList<>();
+        for (int rate : config.rates()) {
+            out.printf("%nStage: %d/s for %ds%n", rate, config.duration().toSeconds());
+            results.add(runStage(rate, config.duration(), true));
+        }
+        printSummary(results);
+    }
+
+    private String login() throws IOException, InterruptedException {
+        String body = objectMapper.createObjectNode()
+                .put("username", config.username())
+                .put("password", config.password())
+                .toString();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(config.baseUrl() + "/login"))
+                .timeout(config.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + config.username() + " failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+
+    private StageResult runStage(int rate, Duration duration, boolean report) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadgen-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        if (report) {
+            long intervalMillis = config.reportInterval().toMillis();
+            reporter.scheduleAtFixedRate(() -> printInterval(stats, start), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        long durationNanos = duration.toNanos();
+        for (long sequence = 0; ; sequence++) {
+            long intendedStart = start + sequence * 1_000_000_000L / rate;
+            if (intendedStart - start >= durationNanos) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatch(nextEndpoint(), intendedStart, stats);
+        }
+
+        // Let outstanding requests finish so their latencies are counted
+        if (inFlight.tryAcquire(config.maxInFlight(), config.requestTimeout().toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            inFlight.release(config.maxInFlight());
+        }
+        reporter.shutdownNow();
+        return new StageResult(rate, (System.nanoTime() - start) / 1e9, stats);
+    }
+
+    private Endpoint nextEndpoint() {
+        int roll = random.nextInt(config.createWeight() + config.cancelWeight() + config.simulateWeight());
+        if (roll < config.createWeight()) {
+            return Endpoint.CREATE;
+        }
+        if (roll < config.createWeight() + config.cancelWeight()) {
+            return Endpoint.CANCEL;
+        }
+        return Endpoint.SIMULATE;
+    }
+
+    private void dispatch(Endpoint endpoint, long intendedStart, Map<Endpoint, EndpointStats> stats) {
+        HttpRequest request;
+        if (endpoint == Endpoint.CANCEL) {
+            Long orderId = cancellableIds.poll();
+            if (orderId == null) {
+                // Nothing created yet that could be cancelled; keep the offered rate with a create instead
+                endpoint = Endpoint.CREATE;
+                request = createRequest();
+            } else {
+                request = post("/orders/" + orderId + "/cancel", HttpRequest.BodyPublishers.noBody()).build();
+            }
+        } else if (endpoint == Endpoint.SIMULATE) {
+            request = post("/orders/simulation-execution", HttpRequest.BodyPublishers.noBody()).build();
+        } else {
+            request = createRequest();
+        }
+
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (!inFlight.tryAcquire()) {
+            endpointStats.shed();
+            return;
+        }
+        boolean create = endpoint == Endpoint.CREATE;
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - intendedStart;
+            inFlight.release();
+            int statusCode = error != null ? 0 : response.statusCode();
+            endpointStats.record(latency, statusCode);
+            if (create && statusCode == 201) {
+                rememberCreatedOrder(response.body());
+            }
+        });
+    }
+
+    private HttpRequest createRequest() {
+        return post("/orders", HttpRequest.BodyPublishers.ofString(orderSource.next()))
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private HttpRequest.Builder post(String path, HttpRequest.BodyPublisher body) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+                .timeout(config.requestTimeout())
+                .header("Authorization", authorization)
+                .POST(body);
+    }
+
+    private void rememberCreatedOrder(String body) {
+        try {
+            JsonNode order = objectMapper.readTree(body);
+            if (order.hasNonNull("id")) {
+                cancellableIds.offer(order.get("id").asLong());
+            }
+        } catch (IOException e) {
+            // Not worth failing the run over; the order just never gets cancelled
+        }
+    }
+
+    private void printInterval(Map<Endpoint, EndpointStats> stats, long start) {
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        double seconds = config.reportInterval().toMillis() / 1000.0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Histogram interval = entry.getValue().takeInterval();
+            if (interval.getTotalCount() == 0) {
+                continue;
+            }
+            out.printf("[%4ds] %-34s %8.1f/s  p50=%s p99=%s p99.9=%s max=%s  in-flight=%d%n",
+                    elapsed, entry.getKey().label(), interval.getTotalCount() / seconds,
+                    millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                    millis(interval.getValueAtPercentile(99.9)), millis(interval.getMaxValue()),
+                    config.maxInFlight() - inFlight.availablePermits());
+        }
+    }
+
+    private void printSummary(List<StageResult> results) throws IOException {
+        out.printf("%n%-8s %-34s %10s %10s %8s %6s %9s %9s %9s %9s %9s  %s%n",
+                "offered", "endpoint", "requests", "ok/s", "errors", "shed", "p50", "p90", "p99", "p99.9", "max", "status codes");
+        for (StageResult result : results) {
+            for (Map.Entry<Endpoint, EndpointStats> entry : result.stats().entrySet()) {
+                EndpointStats endpointStats = entry.getValue();
+                Histogram total = endpointStats.total();
+                if (total.getTotalCount() == 0 && endpointStats.shedCount() == 0) {
+                    continue;
+                }
+                out.printf("%-8s %-34s %10d %10.1f %8d %6d %9s %9s %9s %9s %9s  %s%n",
+                        result.rate() + "/s", entry.getKey().label(), total.getTotalCount(),
+                        endpointStats.succeeded() / result.elapsedSeconds(), endpointStats.failed(), endpointStats.shedCount(),
+                        millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                        millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                        millis(total.getMaxValue()), endpointStats.statusCodes());
+                writeHistogram(result.rate(), entry.getKey(), total);
+            }
+        }
+    }
+
+    private void writeHistogram(int rate, Endpoint endpoint, Histogram histogram) throws IOException {
+        if (config.histogramDir() == null) {
+            return;
+        }
+        Files.createDirectories(config.histogramDir());
+        Path file = config.histogramDir().resolve(rate + "-" + endpoint.name().toLowerCase() + ".hgrm");
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+            // Recorded in microseconds, written in milliseconds
+            histogram.outputPercentileDistribution(stream, 1000.0);
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2fms", micros / 1000.0);
+    }
+
+    private record StageResult(int rate, double elapsedSeconds, Map<Endpoint, EndpointStats> stats) {}
+}
@@ -0,0 +1,90 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Request bodies for {@code POST /orders}: either replayed round-robin from a JSON lines file of
+ * {@code CreateOrderRequest} bodies or synthesized from a seeded random generator, so two runs
+ * with the same options send the same orders. Only used from the dispatching thread.
+ */
+abstract class OrderSource {
+
+    abstract String next();
+
+    static OrderSource synthetic(long seed) {
+        return new Synthetic(new Random(seed));
+    }
+
+    static OrderSource fromFile(Path file, ObjectMapper objectMapper) {
+        List<String> bodies;
+        try (var lines = Files.lines(file)) {
+            bodies = lines.map(String::trim).filter(line -> !line.isEmpty()).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read orders file " + file, e);
+        }
+        if (bodies.isEmpty()) {
+            throw new IllegalArgumentException("Orders file " + file + " is empty");
+        }
+        for (String body : bodies) {
+            try {
+                JsonNode order = objectMapper.readTree(body);
+                if (!order.hasNonNull("symbol") || !order.hasNonNull("side")) {
+                    throw new IllegalArgumentException("Orders file " + file
+                            + " must contain CreateOrderRequest bodies (symbol, quantity, price, side) but has: " + body);
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Orders file " + file + " has a line that is not JSON: " + body, e);
+            }
+        }
+        return new Replay(bodies);
+    }
+
+    private static final class Replay extends OrderSource {
+
+        private final List<String> bodies;
+        private int position;
+
+        private Replay(List<String> bodies) {
+            this.bodies = bodies;
+        }
+
+        @Override
+        String next() {
+            String body = bodies.get(position);
+            position = (position + 1) % bodies.size();
+            return body;
+        }
+    }
+
+    private static final class Synthetic extends OrderSource {
+
+        private static final String[] SYMBOLS = {"VCB", "FPT", "VNM", "HPG", "MWG", "TCB", "VIC", "SSI"};
+        private static final long[] REFERENCE_PRICES = {90_000, 120_000, 70_000, 28_000, 60_000, 35_000, 45_000, 32_000};
+
+        private final Random random;
+
+        private Synthetic(Random random) {
+            this.random = random;
+        }
+
+        @Override
+        String next() {
+            int symbol = random.nextInt(SYMBOLS.length);
+            // Within 2% of the reference price in 100 VND ticks, so a matching engine sees crossing orders
+            long reference = REFERENCE_PRICES[symbol];
+            long price = (reference + Math.round((random.nextDouble() - 0.5) * 0.04 * reference)) / 100 * 100;
+            int quantity = (1 + random.nextInt(100)) * 10;
+            String side = random.nextBoolean() ? "BUY" : "SELL";
+            return "{\"symbol\":\"" + SYMBOLS[symbol] + "\",\"quantity\":" + quantity
+                    + ",\"price\":" + price + ",\"side\":\"" + side + "\"}";
+        }
+    }
+}
@@ -15,6 +15,9 @@ sleep 30
 echo "Creating topic with proper configuration..."
 docker-compose exec kafka kafka-topics --create --topic order-events --bootstrap-server localhost:9092 --replication-factor 1 --partitions 1 --if-not-exists
 
+echo "Clearing offsets and state stored for the old topic..."
+docker-compose exec -T mysql mysql -u root -proot order_simulator -e "TRUNCATE TABLE consumer_offsets; TRUNCATE TABLE order_projection; TRUNCATE TABLE execution_rollups;"
+
 echo "Starting application services..."
 docker-compose up -d handler-service etl-service
 